@@ -22,6 +22,8 @@ const DISPLAY_STATUS = {
 const HistoryPanel = ({ isOpen, onClose, currentSession = null, refreshTrigger = 0 }) => {
   const [sessions, setSessions] = useState([]);
   const [loading, setLoading] = useState(false);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const { user } = useAuth();
 
   // Real-time session update function
@@ -60,23 +62,30 @@ const HistoryPanel = ({ isOpen, onClose, currentSession = null, refreshTrigger =
     }
   }, [currentSession, updateCurrentSessionInHistory]);
 
+  const fetchHistoryPage = async (cursor) => {
+    const params = new URLSearchParams({ limit: '20' });
+    if (cursor) {
+      params.set('cursor', cursor);
+    }
+    const response = await fetch(`http://localhost:8080/api/sessions/history?${params}`, {
+      method: 'GET',
+      credentials: 'include',
+      headers: {
+        'Content-Type': 'application/json',
+      },
+    });
+    if (!response.ok) {
+      throw new Error(`History request failed with status ${response.status}`);
+    }
+    return response.json();
+  };
+
   const fetchSessionHistory = async () => {
     setLoading(true);
     try {
-      const response = await fetch('http://localhost:8080/api/sessions/history', {
-        method: 'GET',
-        credentials: 'include',
-        headers: {
-          'Content-Type': 'application/json',
-        },
-      });
-
-      if (response.ok) {
-        const data = await response.json();
-        setSessions(data);
-      } else {
-        console.error('Failed to fetch session history');
-      }
+      const page = await fetchHistoryPage(null);
+      setSessions(page.sessions);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching session history:', error);
     } finally {
@@ -84,6 +93,23 @@ const HistoryPanel = ({ isOpen, onClose, currentSession = null, refreshTrigger =
     }
   };
 
+  const loadMoreSessions = async () => {
+    if (!nextCursor || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      const page = await fetchHistoryPage(nextCursor);
+      setSessions(prevSessions => {
+        const known = new Set(prevSessions.map(s => s.id));
+        return [...prevSessions, ...page.sessions.filter(s => !known.has(s.id))];
+      });
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error fetching more session history:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const formatDate = (dateString) => {
     const date = new Date(dateString);
     return date.toLocaleDateString('en-US', {
@@ -343,6 +369,15 @@ const HistoryPanel = ({ isOpen, onClose, currentSession = null, refreshTrigger =
                     </div>
                   );
                 })}
+                {nextCursor && (
+                  <button
+                    onClick={loadMoreSessions}
+                    disabled={loadingMore}
+                    className="w-full py-2 text-sm font-medium text-blue-600 hover:bg-blue-50 rounded-lg transition-colors disabled:opacity-50"
+                  >
+                    {loadingMore ? 'Loading...' : 'Load older sessions'}
+                  </button>
+                )}
               </div>
             )}
           </div>
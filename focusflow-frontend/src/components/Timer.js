@@ -41,6 +41,44 @@ const Timer = ({ session, user, onActivityUpdate, onSessionEnd, onSessionUpdate
   
   const intervalRef = useRef(null);
   const stompClientRef = useRef(null);
+  const lastSeqRef = useRef(null);
+  const heartbeatRef = useRef(null);
+
+  const applySessionFields = (fields) => {
+    // Sync timer state with other users
+    if (fields.currentTimeLeft !== undefined && fields.currentTimeLeft !== null) {
+      setTimeLeft(fields.currentTimeLeft);
+    }
+    if (fields.isRunning !== undefined) {
+      setIsRunning(fields.isRunning);
+    }
+    if (fields.isBreak !== undefined) {
+      setIsBreak(fields.isBreak);
+    }
+    if (fields.status !== undefined) {
+      setSessionStatus(fields.status);
+    }
+    if (fields.currentCycle !== undefined) {
+      setCurrentCycle(fields.currentCycle);
+    }
+  };
+
+  const fetchSnapshot = async () => {
+    try {
+      const response = await fetch(`http://localhost:8080/api/sessions/code/${session.sessionCode}/snapshot`, {
+        credentials: 'include',
+      });
+      if (!response.ok) {
+        console.error('Failed to fetch session snapshot. Response:', response.status, response.statusText);
+        return;
+      }
+      const snapshot = await response.json();
+      lastSeqRef.current = snapshot.seq;
+      applySessionFields(snapshot);
+    } catch (error) {
+      console.error('Error fetching session snapshot:', error);
+    }
+  };
 
   useEffect(() => {
     // Initialize WebSocket connection
@@ -50,28 +88,31 @@ const Timer = ({ session, user, onActivityUpdate, onSessionEnd, onSessionUpdate
     stompClient.connect({}, () => {
       console.log('Connected to WebSocket');
       
-      // Subscribe to session updates
+      // Subscribe to session updates (sequenced deltas carrying only changed fields)
       stompClient.subscribe(`/topic/session/${session.sessionCode}`, (message) => {
-        const updatedSession = JSON.parse(message.body);
-        console.log('Received session update:', updatedSession);
+        const update = JSON.parse(message.body);
+        console.log('Received session update:', update);
         
-        // Sync timer state with other users
-        if (updatedSession.currentTimeLeft !== undefined) {
-          setTimeLeft(updatedSession.currentTimeLeft);
+        const lastSeq = lastSeqRef.current;
+        if (!update.full && lastSeq !== null && update.seq <= lastSeq) {
+          return; // Stale or duplicate delta
         }
-        if (updatedSession.isRunning !== undefined) {
-          setIsRunning(updatedSession.isRunning);
+        if (!update.full && lastSeq !== null && update.seq > lastSeq + 1) {
+          // Missed one or more deltas - resync from a full snapshot
+          fetchSnapshot();
+          return;
         }
-        if (updatedSession.isBreak !== undefined) {
-          setIsBreak(updatedSession.isBreak);
-        }
-        
-        setSessionStatus(updatedSession.status);
-        setCurrentCycle(updatedSession.currentCycle);
+        lastSeqRef.current = update.seq;
+        applySessionFields(update);
         
         // Don't log automatic timer state syncs to prevent duplicate notifications
         // These happen frequently and would clutter the activity log
-      });
+      }, { 'x-username': user?.username || 'Anonymous' });
+      
+      // Keep this connection listed as present in the session
+      heartbeatRef.current = setInterval(() => {
+        stompClient.send(`/app/session/${session.sessionCode}/heartbeat`, {}, '');
+      }, 30000);
       
       // Subscribe to user join notifications
       stompClient.subscribe(`/topic/session/${session.sessionCode}/user-joined`, (message) => {
@@ -89,6 +130,7 @@ const Timer = ({ session, user, onActivityUpdate, onSessionEnd, onSessionUpdate
     stompClientRef.current = stompClient;
     
     return () => {
+      clearInterval(heartbeatRef.current);
       if (stompClientRef.current) {
         stompClientRef.current.disconnect();
       }
@@ -132,26 +174,6 @@ const Timer = ({ session, user, onActivityUpdate, onSessionEnd, onSessionUpdate
     }
   };
 
-  const updateCurrentCycle = async (cycle) => {
-    try {
-      const response = await fetch(`http://localhost:8080/api/sessions/${session.id}/cycle`, {
-        method: 'PUT',
-        credentials: 'include',
-        headers: {
-          'Content-Type': 'application/json',
-        },
-        body: JSON.stringify({ cycle }),
-      });
-      
-      if (!response.ok) {
-        console.error('Failed to update current cycle. Response:', response.status, response.statusText);
-        return;
-      }
-    } catch (error) {
-      console.error('Error updating current cycle:', error);
-    }
-  };
-
   const updateTimerState = async (timeLeftValue, isRunningValue, isBreakValue) => {
     // Don't update timer state if session is completed
     if (isCompleting || sessionCompleted || sessionStatus === 'COMPLETED') {
@@ -180,6 +202,9 @@ const Timer = ({ session, user, onActivityUpdate, onSessionEnd, onSessionUpdate
     }
   };
 
+  // The server's timer engine owns every running phase and advances it when it expires, so
+  // completion here only updates the local view; the engine's broadcast is authoritative and
+  // writing the advance from here as well would move the session on twice
   const handleTimerComplete = React.useCallback(async () => {
     setIsRunning(false);
     
@@ -198,9 +223,6 @@ const Timer = ({ session, user, onActivityUpdate, onSessionEnd, onSessionUpdate
           timestamp: new Date()
         });
         
-        // Update timer state without triggering additional logs
-        await updateTimerState(Math.round(settings.shortBreakDuration * 60), false, true);
-        
         // Update history with break state (without triggering WebSocket sync)
         if (onSessionUpdate) {
           onSessionUpdate({ 
@@ -216,18 +238,12 @@ const Timer = ({ session, user, onActivityUpdate, onSessionEnd, onSessionUpdate
         setIsBreak(true);
         setTimeLeft(Math.round(settings.longBreakDuration * 60));
         
-        // Update current cycle to reflect completion of the last work cycle
-        await updateCurrentCycle(currentCycle);
-        
         onActivityUpdate({
           type: 'BREAK_STARTED',
           message: `Long break time! All ${session.totalCycles} cycles completed.`,
           timestamp: new Date()
         });
         
-        // Update timer state for long break
-        await updateTimerState(Math.round(settings.longBreakDuration * 60), false, true);
-        
         // Update history with long break state
         if (onSessionUpdate) {
           onSessionUpdate({ 
@@ -252,12 +268,6 @@ const Timer = ({ session, user, onActivityUpdate, onSessionEnd, onSessionUpdate
           setIsRunning(false);
           setIsBreak(false);
           
-          // Explicitly update session status to completed
-          await updateSessionStatus('COMPLETED');
-          
-          // Ensure cycle is set to total cycles (completed)
-          await updateCurrentCycle(session.totalCycles);
-          
           onActivityUpdate({
             type: 'SESSION_COMPLETED',
             message: 'Congratulations! Focus session and long break completed.',
@@ -286,8 +296,6 @@ const Timer = ({ session, user, onActivityUpdate, onSessionEnd, onSessionUpdate
         const nextCycle = currentCycle + 1;
         setCurrentCycle(nextCycle);
         
-        await updateCurrentCycle(nextCycle);
-        
         onActivityUpdate({
           type: 'CYCLE_STARTED',
           message: `Starting cycle ${nextCycle}`,
@@ -306,7 +314,10 @@ const Timer = ({ session, user, onActivityUpdate, onSessionEnd, onSessionUpdate
         }
       }
     }
-  }, [isBreak, currentCycle, session.totalCycles, settings, onActivityUpdate, updateSessionStatus, updateCurrentCycle, playAlarm, isCompleting, onSessionUpdate, sessionCompleted, session]);
+    
+    // Reconcile with the engine's result in case its broadcast was missed
+    setTimeout(fetchSnapshot, 2000);
+  }, [isBreak, currentCycle, session.totalCycles, settings, onActivityUpdate, playAlarm, isCompleting, onSessionUpdate, sessionCompleted, session]);
 
   useEffect(() => {
     // Don't run timer if session is already completed or completing
@@ -0,0 +1,51 @@
+package com.example.focusflow.benchmark;
+
+import com.example.focusflow.entity.ActivityLog;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.ActivityLogRepository;
+import com.example.focusflow.service.ActivityLogPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Activity events through the batched pipeline versus one JPA save per event.
+ *
+ * The pipeline figure is the caller's cost; whether the writer keeps up shows
+ * in the focusflow.activity.events{outcome=dropped} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ActivityIngestBenchmark {
+
+    private ActivityLogPipeline pipeline;
+    private ActivityLogRepository repository;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ConfigurableApplicationContext context = BenchmarkContext.get();
+        pipeline = context.getBean(ActivityLogPipeline.class);
+        repository = context.getBean(ActivityLogRepository.class);
+        user = BenchmarkContext.createUser(context);
+    }
+
+    @Benchmark
+    public void pipelinePublish() {
+        pipeline.publish(user.getId(), null, ActivityLog.ActivityType.TIP_REQUESTED, "benchmark");
+    }
+
+    @Benchmark
+    public ActivityLog singleRowSave() {
+        return repository.save(new ActivityLog(user, null, ActivityLog.ActivityType.TIP_REQUESTED, "benchmark"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.focusflow.benchmark;
+
+import com.example.focusflow.FocusFlowApplication;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One application context per benchmark JVM, backed by an in-memory H2 database.
+ *
+ * The app runs on a random port with the nightly jobs switched off so they
+ * cannot fire in the middle of a measurement.
+ */
+final class BenchmarkContext {
+
+    private static ConfigurableApplicationContext context;
+
+    private BenchmarkContext() {
+    }
+
+    static synchronized ConfigurableApplicationContext get() {
+        if (context == null) {
+            context = new SpringApplicationBuilder(FocusFlowApplication.class)
+                .properties(
+                    "server.port=0",
+                    "spring.main.banner-mode=off",
+                    "spring.jpa.show-sql=false",
+                    "logging.level.root=WARN",
+                    "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                    "focusflow.activity.retention-cron=-",
+                    "focusflow.archive.cron=-",
+                    "focusflow.reaper.interval-ms=3600000")
+                .run();
+        }
+        return context;
+    }
+
+    static User createUser(ConfigurableApplicationContext context) {
+        String name = "bench-" + UUID.randomUUID();
+        User user = new User(name);
+        user.setEmail(name + "@focusflow.app");
+        return context.getBean(UserRepository.class).save(user);
+    }
+
+    /**
+     * Inserts finished sessions for the user, spread over the past year.
+     */
+    static void seedSessions(ConfigurableApplicationContext context, User user, int count) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Timestamp createdAt = Timestamp.valueOf(now.minusMinutes((long) i * 525_600 / count));
+            rows.add(new Object[] { "B" + user.getId() + "-" + i, user.getId(), createdAt, createdAt, createdAt });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO sessions (session_code, creator_id, duration_minutes, break_minutes, long_break_minutes, " +
+            "total_cycles, current_cycle, status, is_running, is_break, version, created_at, started_at, completed_at) " +
+            "VALUES (?, ?, 25, 5, 15, 4, 4, 'COMPLETED', FALSE, FALSE, 0, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.focusflow.benchmark;
+
+import com.example.focusflow.entity.User;
+import com.example.focusflow.service.ExportService;
+import com.example.focusflow.service.FocusRollupService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a year of one user's focus history: daily rollups versus aggregating
+ * the sessions table, and streaming the full session export.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FocusHistoryBenchmark {
+
+    private static final String GROUP_BY_SQL =
+        "SELECT CAST(created_at AS DATE) AS day, SUM(current_cycle * duration_minutes) AS focus_minutes, " +
+        "SUM(current_cycle) AS cycles, COUNT(*) AS sessions FROM sessions " +
+        "WHERE creator_id = ? AND created_at >= ? GROUP BY CAST(created_at AS DATE) ORDER BY day";
+
+    @Param({"1000", "10000"})
+    private int sessions;
+
+    private FocusRollupService rollupService;
+    private ExportService exportService;
+    private JdbcTemplate jdbcTemplate;
+    private User user;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ConfigurableApplicationContext context = BenchmarkContext.get();
+        rollupService = context.getBean(FocusRollupService.class);
+        exportService = context.getBean(ExportService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        user = BenchmarkContext.createUser(context);
+        BenchmarkContext.seedSessions(context, user, sessions);
+
+        // Build the rollups the incremental path would have produced for the seeded sessions
+        for (Map<String, Object> day : jdbcTemplate.queryForList(GROUP_BY_SQL, user.getId(),
+                Timestamp.valueOf(LocalDateTime.now().minusYears(2)))) {
+            Object value = day.get("day");
+            LocalDate date = value instanceof Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) value;
+            rollupService.record(user.getId(), date,
+                ((Number) day.get("focus_minutes")).doubleValue(), ((Number) day.get("cycles")).longValue(),
+                ((Number) day.get("sessions")).longValue());
+        }
+        rollupService.flush();
+
+        to = LocalDate.now();
+        from = to.minusDays(364);
+    }
+
+    @Benchmark
+    public List<FocusRollupService.FocusBucket> weeklyFromRollups() {
+        return rollupService.getRange(user.getId(), from, to, FocusRollupService.Granularity.WEEK);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> dailyFromSessions() {
+        return jdbcTemplate.queryForList(GROUP_BY_SQL, user.getId(), Timestamp.valueOf(from.atStartOfDay()));
+    }
+
+    @Benchmark
+    public long exportSessions() throws Exception {
+        return exportService.exportSessions(user, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.focusflow.benchmark;
+
+import com.example.focusflow.service.Leaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent score updates with top-10 reads running alongside them.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeaderboardBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int users;
+
+    private Leaderboard board;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = new Leaderboard();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int user = 0; user < users; user++) {
+            board.set(user, random.nextInt(10_000));
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public double update() {
+        return board.add(ThreadLocalRandom.current().nextInt(users), 25);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public List<Leaderboard.Entry> readTop() {
+        return board.top(10);
+    }
+}
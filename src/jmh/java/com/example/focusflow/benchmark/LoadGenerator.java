@@ -0,0 +1,317 @@
+package com.example.focusflow.benchmark;
+
+import com.example.focusflow.service.SessionBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.File;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local load test for session broadcasts.
+ *
+ * Boots the app on a random port, creates sessions over HTTP, connects
+ * participants over STOMP to /ws and subscribes them to their session topic,
+ * then drives timer-state and cycle updates at a fixed rate per session. Every
+ * update carries a unique timer or cycle value, so each delivery can be matched
+ * to the moment its update was sent; the gap is the end-to-end broadcast
+ * latency, including the broadcaster's coalescing window. Percentiles,
+ * throughput and error counts go to a JSON report.
+ *
+ * Run with ./mvnw -Pbenchmarks test-compile exec:exec@load-test and scale it
+ * with the load.* properties in the benchmarks profile.
+ */
+public final class LoadGenerator {
+
+    private final int sessions = Integer.getInteger("load.sessions", 50);
+    private final int participants = Integer.getInteger("load.participants", 20);
+    private final int updatesPerSecond = Integer.getInteger("load.update-rate", 2);
+    private final int durationSeconds = Integer.getInteger("load.duration-seconds", 30);
+    private final int connectConcurrency = Integer.getInteger("load.connect-concurrency", 100);
+    private final String reportFile = System.getProperty("load.report", "target/load-report.json");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    // "code|field|value" -> nanoTime the update carrying that value was sent
+    private final Map<String, Long> sentAt = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> delivered = new ConcurrentHashMap<>();
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final List<StompSession> clients = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong connectErrors = new AtomicLong();
+    private final AtomicLong transportErrors = new AtomicLong();
+    private final AtomicLong updatesSent = new AtomicLong();
+    private final AtomicLong updateConflicts = new AtomicLong();
+    private final AtomicLong updateErrors = new AtomicLong();
+    private final AtomicLong messagesReceived = new AtomicLong();
+
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        int exitCode = new LoadGenerator().run();
+        System.exit(exitCode);
+    }
+
+    private int run() throws Exception {
+        // Requests carry no principal, so the app must run in demo mode whatever the environment says
+        System.setProperty("spring.security.oauth2.client.registration.google.client-id", "demo-client-id");
+        ConfigurableApplicationContext context = BenchmarkContext.get();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        System.out.println("Load test against " + baseUrl + ": " + sessions + " sessions x " + participants
+            + " participants, " + updatesPerSecond + " updates/s per session for " + durationSeconds + " s");
+
+        List<Long> ids = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            Map<?, ?> session = send("POST", "/api/sessions",
+                Map.of("durationMinutes", 25, "breakMinutes", 5, "longBreakMinutes", 15, "totalCycles", 1_000_000));
+            ids.add(((Number) session.get("id")).longValue());
+            codes.add((String) session.get("sessionCode"));
+        }
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+            new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        long connectStarted = System.nanoTime();
+        connectAll(stompClient, codes);
+        long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStarted);
+        System.out.println("Connected " + clients.size() + " clients in " + connectMillis + " ms");
+
+        ScheduledExecutorService driver = Executors.newScheduledThreadPool(4);
+        long periodMicros = 1_000_000L / Math.max(1, updatesPerSecond);
+        long started = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            long id = ids.get(i);
+            String code = codes.get(i);
+            AtomicLong sequence = new AtomicLong();
+            // Spread sessions over the period so updates do not arrive in bursts
+            driver.scheduleAtFixedRate(() -> update(id, code, sequence.incrementAndGet()),
+                periodMicros * i / sessions, periodMicros, TimeUnit.MICROSECONDS);
+        }
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+        driver.shutdownNow();
+        long elapsedNanos = System.nanoTime() - started;
+        // Let in-flight broadcasts land
+        Thread.sleep(2_000);
+
+        clients.forEach(StompSession::disconnect);
+        stompClient.stop();
+        writeReport(connectMillis, elapsedNanos);
+        context.close();
+        return 0;
+    }
+
+    private void connectAll(WebSocketStompClient stompClient, List<String> codes) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(connectConcurrency);
+        // SockJS takes the http URL and upgrades the transport to ws itself
+        String url = baseUrl + "/ws";
+        for (String code : codes) {
+            for (int p = 0; p < participants; p++) {
+                inFlight.acquire();
+                stompClient.connectAsync(url, new StompSessionHandlerAdapter() {
+                    @Override
+                    public void afterConnected(@NonNull StompSession session, @NonNull StompHeaders headers) {
+                        session.subscribe(SessionBroadcaster.TOPIC_PREFIX + code, new TopicHandler(code));
+                        clients.add(session);
+                    }
+
+                    @Override
+                    public void handleException(@NonNull StompSession session, StompCommand command,
+                                                @NonNull StompHeaders headers, @NonNull byte[] payload,
+                                                @NonNull Throwable exception) {
+                        transportErrors.incrementAndGet();
+                    }
+
+                    @Override
+                    public void handleTransportError(@NonNull StompSession session, @NonNull Throwable exception) {
+                        transportErrors.incrementAndGet();
+                    }
+                }).whenComplete((session, error) -> {
+                    if (error != null) {
+                        connectErrors.incrementAndGet();
+                    }
+                    inFlight.release();
+                });
+            }
+        }
+        inFlight.acquire(connectConcurrency);
+    }
+
+    private void update(long id, String code, long sequence) {
+        // Alternate timer pushes and cycle advances; values are unique per session
+        String path;
+        Map<String, Object> body;
+        String probe;
+        if (sequence % 2 == 0) {
+            int timeLeft = (int) (1_000_000_000 - sequence);
+            path = "/api/sessions/" + id + "/timer-state";
+            body = Map.of("timeLeft", timeLeft, "isRunning", false, "isBreak", false);
+            probe = code + "|currentTimeLeft|" + timeLeft;
+        } else {
+            int cycle = (int) (sequence % 999_999) + 1;
+            path = "/api/sessions/" + id + "/cycle";
+            body = Map.of("cycle", cycle);
+            probe = code + "|currentCycle|" + cycle;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                .build();
+            sentAt.put(probe, System.nanoTime());
+            updatesSent.incrementAndGet();
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (error != null) {
+                    updateErrors.incrementAndGet();
+                } else if (response.statusCode() == 409) {
+                    updateConflicts.incrementAndGet();
+                } else if (response.statusCode() != 200) {
+                    updateErrors.incrementAndGet();
+                }
+            });
+        } catch (Exception e) {
+            updateErrors.incrementAndGet();
+        }
+    }
+
+    private Map<?, ?> send(String method, String path, Object body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+            .build();
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(method + " " + path + " returned " + response.statusCode());
+        }
+        return mapper.readValue(response.body(), Map.class);
+    }
+
+    private void writeReport(long connectMillis, long elapsedNanos) throws Exception {
+        double seconds = elapsedNanos / 1e9;
+        long[] sorted = latencies.sorted();
+        long probesDelivered = delivered.size();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sessions", sessions);
+        report.put("participantsPerSession", participants);
+        report.put("updatesPerSecondPerSession", updatesPerSecond);
+        report.put("durationSeconds", durationSeconds);
+        report.put("clientsConnected", clients.size());
+        report.put("connectMillis", connectMillis);
+        report.put("connectErrors", connectErrors.get());
+        report.put("transportErrors", transportErrors.get());
+        report.put("updatesSent", updatesSent.get());
+        report.put("updateConflicts", updateConflicts.get());
+        report.put("updateErrors", updateErrors.get());
+        report.put("updatesPerSecond", updatesSent.get() / seconds);
+        report.put("messagesReceived", messagesReceived.get());
+        report.put("messagesPerSecond", messagesReceived.get() / seconds);
+        // Updates whose value reached no subscriber, mostly superseded within the coalescing window
+        report.put("updatesNotDelivered", updatesSent.get() - probesDelivered);
+        report.put("latencySamples", sorted.length);
+        report.put("latencyMillis", Map.of(
+            "p50", percentile(sorted, 0.50),
+            "p99", percentile(sorted, 0.99),
+            "p999", percentile(sorted, 0.999),
+            "max", sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0.0));
+
+        File file = new File(reportFile);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        mapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println(mapper.writeValueAsString(report));
+        System.out.println("Report written to " + file.getAbsolutePath());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private final class TopicHandler implements StompFrameHandler {
+        private final String code;
+
+        TopicHandler(String code) {
+            this.code = code;
+        }
+
+        @Override
+        @NonNull
+        public Type getPayloadType(@NonNull StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+            long now = System.nanoTime();
+            messagesReceived.incrementAndGet();
+            Map<?, ?> fields = (Map<?, ?>) payload;
+            for (String field : new String[] { "currentTimeLeft", "currentCycle" }) {
+                Object value = fields.get(field);
+                if (value == null) {
+                    continue;
+                }
+                String probe = code + "|" + field + "|" + value;
+                Long sent = sentAt.get(probe);
+                if (sent != null) {
+                    latencies.record(now - sent);
+                    delivered.put(probe, Boolean.TRUE);
+                }
+            }
+        }
+    }
+
+    private static final class LatencyRecorder {
+        private long[] samples = new long[1 << 16];
+        private int count;
+
+        synchronized void record(long nanos) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
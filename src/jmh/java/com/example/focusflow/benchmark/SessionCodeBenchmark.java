@@ -0,0 +1,66 @@
+package com.example.focusflow.benchmark;
+
+import com.example.focusflow.repository.SessionRepository;
+import com.example.focusflow.service.IdentifierAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session code and anonymous username generation, including block reservations.
+ *
+ * legacySessionCode is the baseline: the random code plus existsBySessionCode
+ * retry loop the allocator replaced, so it pays at least one query per code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SessionCodeBenchmark {
+
+    private static final String CODE_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    private IdentifierAllocator allocator;
+    private SessionRepository sessionRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        allocator = BenchmarkContext.get().getBean(IdentifierAllocator.class);
+        sessionRepository = BenchmarkContext.get().getBean(SessionRepository.class);
+    }
+
+    @Benchmark
+    public String legacySessionCode() {
+        String sessionCode = randomCode();
+        while (sessionRepository.existsBySessionCode(sessionCode)) {
+            sessionCode = randomCode();
+        }
+        return sessionCode;
+    }
+
+    @Benchmark
+    public String nextSessionCode() {
+        return allocator.nextSessionCode();
+    }
+
+    @Benchmark
+    public String nextAnonymousUsername() {
+        return allocator.nextAnonymousUsername();
+    }
+
+    private static String randomCode() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] code = new char[6];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = CODE_ALPHABET.charAt(random.nextInt(CODE_ALPHABET.length()));
+        }
+        return new String(code);
+    }
+}
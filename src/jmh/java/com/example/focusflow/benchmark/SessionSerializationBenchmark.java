@@ -0,0 +1,72 @@
+package com.example.focusflow.benchmark;
+
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.service.SessionBroadcaster;
+import com.example.focusflow.service.SessionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encoding of sessions and broadcast snapshots, as JSON and as CBOR.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SessionSerializationBenchmark {
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private Session session;
+    private Map<String, Object> snapshot;
+    private byte[] snapshotJson;
+    private byte[] snapshotCbor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ConfigurableApplicationContext context = BenchmarkContext.get();
+        json = context.getBean(ObjectMapper.class);
+        cbor = json.copyWith(new CBORFactory());
+        session = context.getBean(SessionService.class)
+            .createSession(BenchmarkContext.createUser(context), 25, 5, 15, 4);
+        snapshot = context.getBean(SessionBroadcaster.class).snapshot(session);
+        snapshotJson = json.writeValueAsBytes(snapshot);
+        snapshotCbor = cbor.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public byte[] sessionToJson() throws Exception {
+        return json.writeValueAsBytes(session);
+    }
+
+    @Benchmark
+    public byte[] snapshotToJson() throws Exception {
+        return json.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public byte[] snapshotToCbor() throws Exception {
+        return cbor.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public Map<?, ?> snapshotFromJson() throws Exception {
+        return json.readValue(snapshotJson, Map.class);
+    }
+
+    @Benchmark
+    public Map<?, ?> snapshotFromCbor() throws Exception {
+        return cbor.readValue(snapshotCbor, Map.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.focusflow.benchmark;
+
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.service.SessionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionService update and lookup paths against the embedded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SessionServiceBenchmark {
+
+    private SessionService sessionService;
+    private Session session;
+    private int cycle;
+    private boolean paused;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ConfigurableApplicationContext context = BenchmarkContext.get();
+        sessionService = context.getBean(SessionService.class);
+        User user = BenchmarkContext.createUser(context);
+        // Enough cycles that cycle updates never complete the session
+        session = sessionService.createSession(user, 25, 5, 15, 1_000_000);
+        sessionService.updateSessionStatus(session.getId(), Session.SessionStatus.ACTIVE);
+    }
+
+    @Benchmark
+    public Session updateTimerState() {
+        return sessionService.updateTimerState(session.getId(), 1500, false, false);
+    }
+
+    @Benchmark
+    public Session updateCurrentCycle() {
+        cycle = cycle % 1000 + 1;
+        return sessionService.updateCurrentCycle(session.getId(), cycle);
+    }
+
+    @Benchmark
+    public Session updateSessionStatus() {
+        paused = !paused;
+        return sessionService.updateSessionStatus(session.getId(),
+            paused ? Session.SessionStatus.PAUSED : Session.SessionStatus.ACTIVE);
+    }
+
+    @Benchmark
+    public Optional<Session> findBySessionCode() {
+        return sessionService.findBySessionCode(session.getSessionCode());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.focusflow.benchmark;
+
+import com.example.focusflow.service.TimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Scheduling and cancelling phase timeouts, the timer engine's per-update cost,
+ * measured against a wheel already holding one live timeout per running
+ * session. Each operation restarts a random session's timer, so the wheel stays
+ * at its capacity instead of accumulating cancelled entries; run with -prof gc
+ * to see the retained footprint alongside the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimingWheelBenchmark {
+
+    private static final Runnable NOOP = () -> { };
+
+    @Param({"10000", "100000", "1000000"})
+    private int liveTimers;
+
+    private TimingWheel wheel;
+    private AtomicReferenceArray<TimingWheel.Timeout> live;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        wheel = new TimingWheel(100, 512, Runnable::run);
+        live = new AtomicReferenceArray<>(liveTimers);
+        for (int i = 0; i < liveTimers; i++) {
+            live.set(i, wheel.schedule(NOOP, phaseMs()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        int size = wheel.size();
+        wheel.close();
+        if (size != liveTimers) {
+            throw new IllegalStateException("Expected " + liveTimers + " live timeouts, wheel holds " + size);
+        }
+    }
+
+    @Benchmark
+    public boolean restartTimer() {
+        int slot = ThreadLocalRandom.current().nextInt(liveTimers);
+        TimingWheel.Timeout replacement = wheel.schedule(NOOP, phaseMs());
+        return live.getAndSet(slot, replacement).cancel();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean restartTimerContended() {
+        return restartTimer();
+    }
+
+    // Phase lengths from an hour up to two, so nothing expires during a run
+    private static long phaseMs() {
+        return ThreadLocalRandom.current().nextLong(3_600_000, 7_200_000);
+    }
+}
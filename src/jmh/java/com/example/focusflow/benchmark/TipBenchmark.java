@@ -0,0 +1,77 @@
+package com.example.focusflow.benchmark;
+
+import com.example.focusflow.service.TipIndex;
+import com.example.focusflow.service.TipRotation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tip selection: contextual query latency against corpus size, and per-user rotation.
+ *
+ * The corpus is synthetic, drawn from a skewed vocabulary so that some terms
+ * are common and most are rare, as in natural text.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TipBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+    private static final int QUERIES = 256;
+    private static final int USERS = 100_000;
+
+    @Param({"1000", "10000", "100000"})
+    private int corpusSize;
+
+    private TipIndex index;
+    private TipRotation rotation;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> tips = new ArrayList<>(corpusSize);
+        for (int i = 0; i < corpusSize; i++) {
+            tips.add(sentence(random, 8 + random.nextInt(12)));
+        }
+        index = new TipIndex(tips);
+        rotation = new TipRotation(USERS);
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = sentence(random, 3 + random.nextInt(6));
+        }
+    }
+
+    @Benchmark
+    public List<TipIndex.Match> search() {
+        return index.search(queries[next++ & (QUERIES - 1)], 3);
+    }
+
+    @Benchmark
+    public int rotate() {
+        return rotation.next(next++ % USERS, corpusSize, 0);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            // Cubing a uniform draw favours low (common) word ids
+            double u = random.nextDouble();
+            sentence.append("term").append((int) (u * u * u * VOCABULARY)).append(' ');
+        }
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.focusflow.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-subscription payload format negotiation for STOMP topics.
+ *
+ * A client subscribing with the header {@code x-payload-format: cbor} receives
+ * CBOR-encoded bodies as binary frames instead of JSON text. JSON stays the
+ * default. Binary frames cannot travel over SockJS, so CBOR is only honoured
+ * for clients connected to the native WebSocket endpoint.
+ *
+ * The broker hands every subscriber of a topic the same payload array, so each
+ * JSON body is encoded once and the result reused for the other CBOR
+ * subscribers, rather than re-encoded per subscriber.
+ */
+@Component
+public class BinaryPayloadInterceptor implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryPayloadInterceptor.class);
+
+    public static final String FORMAT_HEADER = "x-payload-format";
+    public static final String CBOR = "cbor";
+
+    private static final String NATIVE_SESSION_ATTRIBUTE = "focusflow.nativeWebSocket";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final CBORFactory cborFactory = new CBORFactory();
+
+    // STOMP session id -> subscription ids that asked for CBOR
+    private final Map<String, Map<String, Boolean>> cborSubscriptions = new ConcurrentHashMap<>();
+    // JSON payload -> its CBOR encoding; arrays hash by identity, and entries go once the broker drops the payload
+    private final Map<byte[], byte[]> encoded = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type == SimpMessageType.MESSAGE) {
+            return encodeOutbound(message);
+        }
+
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        String sessionId = accessor.getSessionId();
+        if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            boolean nativeSession = accessor.getSessionAttributes() != null
+                && Boolean.TRUE.equals(accessor.getSessionAttributes().get(NATIVE_SESSION_ATTRIBUTE));
+            if (nativeSession && CBOR.equalsIgnoreCase(accessor.getFirstNativeHeader(FORMAT_HEADER))) {
+                cborSubscriptions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                    .put(accessor.getSubscriptionId(), Boolean.TRUE);
+            }
+        } else if (accessor.getCommand() == StompCommand.UNSUBSCRIBE) {
+            Map<String, Boolean> subscriptions = cborSubscriptions.get(sessionId);
+            if (subscriptions != null) {
+                subscriptions.remove(accessor.getSubscriptionId());
+            }
+        } else if (accessor.getCommand() == StompCommand.DISCONNECT) {
+            cborSubscriptions.remove(sessionId);
+        }
+        return message;
+    }
+
+    /**
+     * Marks sessions opened through the native (non-SockJS) endpoint.
+     */
+    public HandshakeInterceptor nativeEndpointMarker() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                           @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+                attributes.put(NATIVE_SESSION_ATTRIBUTE, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                       @NonNull WebSocketHandler wsHandler, Exception exception) {
+            }
+        };
+    }
+
+    public byte[] jsonToCbor(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (JsonParser parser = jsonFactory.createParser(json);
+             JsonGenerator generator = cborFactory.createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+        return out.toByteArray();
+    }
+
+    private Message<?> encodeOutbound(Message<?> message) {
+        if (!(message.getPayload() instanceof byte[] json) || cborSubscriptions.isEmpty()) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        Map<String, Boolean> subscriptions = sessionId != null ? cborSubscriptions.get(sessionId) : null;
+        if (subscriptions == null || subscriptionId == null || !subscriptions.containsKey(subscriptionId)) {
+            return message;
+        }
+
+        try {
+            byte[] cbor = encoded.get(json);
+            if (cbor == null) {
+                // Encoded outside the lock; two threads racing on one payload at worst both encode it
+                cbor = jsonToCbor(json);
+                encoded.put(json, cbor);
+            }
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+            // Octet-stream makes the STOMP handler send a binary WebSocket frame
+            accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+            accessor.setNativeHeader(FORMAT_HEADER, CBOR);
+            return MessageBuilder.createMessage(cbor, accessor.getMessageHeaders());
+        } catch (IOException e) {
+            log.warn("Error encoding CBOR payload, sending JSON", e);
+            return message;
+        }
+    }
+}
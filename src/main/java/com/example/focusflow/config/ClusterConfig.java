@@ -0,0 +1,19 @@
+package com.example.focusflow.config;
+
+import com.example.focusflow.service.ClusterTransport;
+import com.example.focusflow.service.LoopbackClusterTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ClusterConfig {
+
+    // Single-node deployments (focusflow.cluster.mode=none) define no transport
+    @Bean
+    @ConditionalOnProperty(name = "focusflow.cluster.mode", havingValue = "loopback")
+    public ClusterTransport loopbackClusterTransport(@Value("${focusflow.cluster.loopback.name:focusflow}") String clusterName) {
+        return new LoopbackClusterTransport(clusterName);
+    }
+}
@@ -41,7 +41,7 @@ public class SecurityConfig {
                         .requestMatchers("/", "/login**", "/error", "/webjars/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
-                        .requestMatchers("/ws/**").permitAll()
+                        .requestMatchers("/ws/**", "/ws-native").permitAll()
                         .requestMatchers("/api/**").permitAll() // Allow API access in demo mode
                         .anyRequest().authenticated();
                 }
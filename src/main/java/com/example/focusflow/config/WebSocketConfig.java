@@ -1,6 +1,8 @@
 package com.example.focusflow.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -11,6 +13,12 @@ import org.springframework.lang.NonNull;
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private BinaryPayloadInterceptor binaryPayloadInterceptor;
+
+    @Autowired
+    private WebSocketMetrics webSocketMetrics;
+
     public void configureMessageBroker(@NonNull MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
         config.setApplicationDestinationPrefixes("/app");
@@ -19,5 +27,20 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void registerStompEndpoints(@NonNull StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
+        // Native WebSocket endpoint; needed for binary (CBOR) frames, which SockJS cannot carry
+        registry.addEndpoint("/ws-native")
+            .setAllowedOriginPatterns("*")
+            .addInterceptors(binaryPayloadInterceptor.nativeEndpointMarker());
+    }
+
+    @Override
+    public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
+        registration.interceptors(binaryPayloadInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(@NonNull ChannelRegistration registration) {
+        // Metrics last, so they count the payload as encoded for the subscriber
+        registration.interceptors(binaryPayloadInterceptor, webSocketMetrics);
     }
 }
@@ -0,0 +1,178 @@
+package com.example.focusflow.config;
+
+import com.example.focusflow.service.SessionBroadcaster;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters for the STOMP layer.
+ *
+ * Registered as an interceptor on the client outbound channel, after
+ * {@link BinaryPayloadInterceptor}, so it sees every message as sent to each
+ * subscriber and counts the bytes actually on the wire. Destinations are
+ * reduced to templates such as /topic/session/{code}/user-joined before being
+ * used as tags. Also tracks connected STOMP sessions and their subscriptions
+ * from the broker's application events, and the queue depth and active
+ * threads of the inbound, outbound and broker channel executors.
+ */
+@Component
+public class WebSocketMetrics implements ChannelInterceptor {
+
+    private static final int MAX_TOPICS = 64;
+    private static final Map<String, String> CHANNEL_EXECUTORS = Map.of(
+        "inbound", "clientInboundChannelExecutor",
+        "outbound", "clientOutboundChannelExecutor",
+        "broker", "brokerChannelExecutor"
+    );
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    // STOMP session id -> subscription ids
+    private final Map<String, Set<String>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+    private final Map<String, TopicMeters> topics = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("focusflow.stomp.sessions", subscriptions, Map::size)
+            .register(meterRegistry);
+        Gauge.builder("focusflow.stomp.subscriptions", subscriptionCount, AtomicInteger::get)
+            .register(meterRegistry);
+    }
+
+    // The channel executors are created by the broker configuration that also takes this interceptor
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerChannelMetrics() {
+        CHANNEL_EXECUTORS.forEach((channel, beanName) -> {
+            Object bean = applicationContext.containsBean(beanName) ? applicationContext.getBean(beanName) : null;
+            if (bean instanceof ThreadPoolTaskExecutor executor) {
+                Gauge.builder("focusflow.stomp.channel.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+                Gauge.builder("focusflow.stomp.channel.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+            }
+        });
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+            TopicMeters meters = meters(topicOf(SimpMessageHeaderAccessor.getDestination(message.getHeaders())));
+            meters.messages.increment();
+            meters.bytes.record(message.getPayload() instanceof byte[] payload ? payload.length : 0);
+        }
+        return message;
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (sessionId != null) {
+            subscriptions.putIfAbsent(sessionId, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        if (subscriptions.computeIfAbsent(accessor.getSessionId(), id -> ConcurrentHashMap.newKeySet())
+                .add(accessor.getSubscriptionId())) {
+            subscriptionCount.incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Set<String> sessionSubscriptions = accessor.getSessionId() != null ? subscriptions.get(accessor.getSessionId()) : null;
+        if (sessionSubscriptions != null && accessor.getSubscriptionId() != null
+                && sessionSubscriptions.remove(accessor.getSubscriptionId())) {
+            subscriptionCount.decrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        // Disconnect may be published more than once per session; only the first removal counts
+        Set<String> sessionSubscriptions = subscriptions.remove(event.getSessionId());
+        if (sessionSubscriptions != null) {
+            subscriptionCount.addAndGet(-sessionSubscriptions.size());
+        }
+    }
+
+    /**
+     * Destination with the session code replaced by a placeholder, so tags stay low-cardinality.
+     */
+    static String topicOf(String destination) {
+        if (destination == null) {
+            return "none";
+        }
+        if (!destination.startsWith(SessionBroadcaster.TOPIC_PREFIX)) {
+            return "other";
+        }
+        String rest = destination.substring(SessionBroadcaster.TOPIC_PREFIX.length());
+        int slash = rest.indexOf('/');
+        return SessionBroadcaster.TOPIC_PREFIX + "{code}" + (slash >= 0 ? rest.substring(slash) : "");
+    }
+
+    private TopicMeters meters(String topic) {
+        TopicMeters meters = topics.get(topic);
+        if (meters != null) {
+            return meters;
+        }
+        if (topics.size() >= MAX_TOPICS) {
+            topic = "other";
+        }
+        return topics.computeIfAbsent(topic, TopicMeters::new);
+    }
+
+    private final class TopicMeters {
+        private final Counter messages;
+        private final DistributionSummary bytes;
+
+        TopicMeters(String topic) {
+            this.messages = Counter.builder("focusflow.stomp.outbound.messages")
+                .tag("topic", topic)
+                .register(meterRegistry);
+            this.bytes = DistributionSummary.builder("focusflow.stomp.outbound.bytes")
+                .baseUnit("bytes")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        }
+    }
+}
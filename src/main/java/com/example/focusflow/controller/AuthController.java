@@ -1,5 +1,7 @@
 package com.example.focusflow.controller;
 
+import com.example.focusflow.service.IdentityCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -13,6 +15,9 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
 public class AuthController {
 
+    @Autowired
+    private IdentityCache identityCache;
+
     @GetMapping("/user")
     public ResponseEntity<Map<String, Object>> getAuthenticatedUser(@AuthenticationPrincipal OAuth2User oauth2User) {
         Map<String, Object> response = new HashMap<>();
@@ -24,23 +29,18 @@ public class AuthController {
         }
 
         try {
-            Map<String, Object> attributes = oauth2User.getAttributes();
-            System.out.println("OAuth2User attributes: " + attributes);
+            // Resolved at login; no need to read the OAuth attributes again
+            IdentityCache.Identity identity = identityCache.resolve(oauth2User);
             
-            String email = attributes.get("email").toString();
-            String firstName = attributes.get("given_name").toString();
-            String lastName = attributes.get("family_name").toString();
+            Map<String, Object> user = new HashMap<>();
+            user.put("id", identity.id());
+            user.put("email", identity.email());
+            user.put("firstName", identity.firstName());
+            user.put("lastName", identity.lastName());
+            user.put("profilePicture", identity.profilePictureUrl());
             
             response.put("authenticated", true);
-            response.put("user", Map.of(
-                "id", 1L, // Temporary ID
-                "email", email,
-                "firstName", firstName,
-                "lastName", lastName,
-                "profilePicture", attributes.get("picture")
-            ));
-            
-            System.out.println("User authenticated successfully: " + email);
+            response.put("user", user);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             System.err.println("Error processing authenticated user: " + e.getMessage());
@@ -0,0 +1,83 @@
+package com.example.focusflow.controller;
+
+import com.example.focusflow.entity.User;
+import com.example.focusflow.service.ExportService;
+import com.example.focusflow.service.IdentityCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "*")
+public class ExportController {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportController.class);
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private IdentityCache identityCache;
+
+    @GetMapping("/sessions")
+    public ResponseEntity<StreamingResponseBody> exportSessions(@AuthenticationPrincipal OAuth2User oauth2User,
+                                                                @RequestParam(defaultValue = "false") boolean gzip) {
+        Optional<User> userOpt = currentUser(oauth2User);
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        User user = userOpt.get();
+        return stream("sessions", gzip, out -> {
+            long rows = exportService.exportSessions(user, out);
+            log.debug("Exported {} sessions for user {}", rows, user.getId());
+        });
+    }
+
+    @GetMapping("/activity")
+    public ResponseEntity<StreamingResponseBody> exportActivity(@AuthenticationPrincipal OAuth2User oauth2User,
+                                                                @RequestParam(defaultValue = "false") boolean gzip) {
+        Optional<User> userOpt = currentUser(oauth2User);
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        User user = userOpt.get();
+        return stream("activity", gzip, out -> {
+            long rows = exportService.exportActivity(user, out);
+            log.debug("Exported {} activity log entries for user {}", rows, user.getId());
+        });
+    }
+
+    private Optional<User> currentUser(OAuth2User oauth2User) {
+        // Demo mode has no principal
+        return identityCache.find(oauth2User).map(IdentityCache.Identity::toUser);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, boolean gzip, StreamingResponseBody body) {
+        // Rows are written as they are read; gzip wraps the response stream rather than buffering it
+        StreamingResponseBody response = gzip ? out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+            body.writeTo(compressed);
+            compressed.finish();
+        } : body;
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"focusflow-" + name + (gzip ? ".ndjson.gz\"" : ".ndjson\""))
+                .body(response);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.focusflow.controller;
+
+import com.example.focusflow.service.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@CrossOrigin(origins = "*")
+public class LeaderboardController {
+    
+    private static final int MAX_LIMIT = 100;
+    
+    @Autowired
+    private LeaderboardService leaderboardService;
+    
+    @GetMapping("/global")
+    public ResponseEntity<List<LeaderboardService.Ranking>> getGlobal(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.topGlobal(clamp(limit)));
+    }
+    
+    @GetMapping("/weekly")
+    public ResponseEntity<List<LeaderboardService.Ranking>> getWeekly(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.topWeekly(clamp(limit)));
+    }
+    
+    @GetMapping("/session/{sessionCode}")
+    public ResponseEntity<List<LeaderboardService.Ranking>> getSession(@PathVariable String sessionCode,
+                                                                       @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.topInSession(sessionCode, clamp(limit)));
+    }
+    
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.focusflow.controller;
+
+import com.example.focusflow.service.PresenceRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+@Controller
+public class PresenceController {
+    
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+    
+    // Clients send to /app/session/{sessionCode}/heartbeat to stay listed as present
+    @MessageMapping("/session/{sessionCode}/heartbeat")
+    public void heartbeat(@DestinationVariable String sessionCode, SimpMessageHeaderAccessor headerAccessor) {
+        presenceRegistry.heartbeat(headerAccessor.getSessionId());
+    }
+}
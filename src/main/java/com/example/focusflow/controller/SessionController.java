@@ -2,16 +2,23 @@ package com.example.focusflow.controller;
 
 import com.example.focusflow.entity.Session;
 import com.example.focusflow.entity.User;
+import com.example.focusflow.service.IdentityCache;
+import com.example.focusflow.service.PresenceRegistry;
 import com.example.focusflow.service.SessionService;
-import com.example.focusflow.service.UserService;
-import com.example.focusflow.repository.UserRepository;
+import com.example.focusflow.repository.SessionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,14 +28,16 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class SessionController {
     
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    
     @Autowired
     private SessionService sessionService;
     
     @Autowired
-    private UserService userService;
+    private IdentityCache identityCache;
     
     @Autowired
-    private UserRepository userRepository;
+    private PresenceRegistry presenceRegistry;
 
     @PostMapping
     public ResponseEntity<Session> createSession(
@@ -36,37 +45,8 @@ public class SessionController {
             @AuthenticationPrincipal OAuth2User oauth2User) {
         
         try {
-            User user;
-            
-            if (oauth2User == null) {
-                // Demo mode - create or get demo user
-                user = userRepository.findByEmail("demo@focusflow.app").orElseGet(() -> {
-                    User demoUser = new User();
-                    demoUser.setEmail("demo@focusflow.app");
-                    demoUser.setUsername("Demo User");
-                    demoUser.setGoogleId("demo-user-id");
-                    demoUser.setFirstName("Demo");
-                    demoUser.setLastName("User");
-                    demoUser.setProfilePictureUrl(null);
-                    demoUser.setAnonymous(true);
-                    System.out.println("Creating demo user for session");
-                    return userRepository.save(demoUser);
-                });
-            } else {
-                // OAuth mode - get or create user from OAuth2 data
-                String email = oauth2User.getAttributes().get("email").toString();
-                user = userRepository.findByEmail(email).orElseGet(() -> {
-                    User newUser = new User();
-                    newUser.setEmail(email);
-                    newUser.setUsername(email);
-                    newUser.setGoogleId(oauth2User.getAttributes().get("sub").toString());
-                    newUser.setFirstName(oauth2User.getAttributes().get("given_name").toString());
-                    newUser.setLastName(oauth2User.getAttributes().get("family_name").toString());
-                    newUser.setProfilePictureUrl(oauth2User.getAttributes().get("picture").toString());
-                    newUser.setAnonymous(false);
-                    return userRepository.save(newUser);
-                });
-            }
+            // Demo mode (no principal) or OAuth mode - get or create the caller's user
+            User user = identityCache.resolve(oauth2User).toUser();
             
             Session session = sessionService.createSession(
                 user, 
@@ -93,6 +73,26 @@ public class SessionController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/code/{sessionCode}/snapshot")
+    public ResponseEntity<Map<String, Object>> getSessionSnapshot(@PathVariable String sessionCode) {
+        return sessionService.getSnapshot(sessionCode)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/code/{sessionCode}/participants")
+    public ResponseEntity<Map<String, Object>> getParticipants(@PathVariable String sessionCode) {
+        return ResponseEntity.ok(Map.of(
+            "count", presenceRegistry.getParticipantCount(sessionCode),
+            "participants", presenceRegistry.getParticipants(sessionCode)
+        ));
+    }
+    
+    @GetMapping("/code/{sessionCode}/participants/count")
+    public ResponseEntity<Map<String, Integer>> getParticipantCount(@PathVariable String sessionCode) {
+        return ResponseEntity.ok(Map.of("count", presenceRegistry.getParticipantCount(sessionCode)));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Session> getSession(@PathVariable Long id) {
         return sessionService.findById(id)
@@ -101,28 +101,45 @@ public class SessionController {
     }
 
     @GetMapping("/history")
-    public ResponseEntity<List<Session>> getSessionHistory(@AuthenticationPrincipal OAuth2User oauth2User) {
+    public ResponseEntity<SessionHistoryPage> getSessionHistory(@AuthenticationPrincipal OAuth2User oauth2User,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "20") int limit,
+                                                                @RequestParam(required = false) Session.SessionStatus status,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
         try {
-            String email;
+            // Demo mode when there is no principal
+            Optional<IdentityCache.Identity> identity = identityCache.find(oauth2User);
             
-            if (oauth2User == null) {
-                // Demo mode
-                email = "demo@focusflow.app";
-            } else {
-                // OAuth mode
-                email = oauth2User.getAttributes().get("email").toString();
+            if (identity.isEmpty()) {
+                return ResponseEntity.ok(new SessionHistoryPage(new ArrayList<>(), null));
             }
             
-            Optional<User> userOpt = userRepository.findByEmail(email);
+            LocalDateTime cursorCreatedAt = null;
+            Long cursorId = null;
+            if (cursor != null && !cursor.isBlank()) {
+                // Cursor is "createdAt|id" of the last session on the previous page
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                cursorCreatedAt = LocalDateTime.parse(parts[0]);
+                cursorId = Long.parseLong(parts[1]);
+            }
             
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.ok(new ArrayList<>());
+            // Fetch one extra row to know whether another page follows
+            int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+            List<SessionRepository.SessionSummary> sessions = sessionService.findHistoryPage(
+                identity.get().toUser(), cursorCreatedAt, cursorId, status, from, to, pageSize + 1);
+            
+            String nextCursor = null;
+            if (sessions.size() > pageSize) {
+                sessions = sessions.subList(0, pageSize);
+                SessionRepository.SessionSummary last = sessions.get(pageSize - 1);
+                nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getCreatedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
             }
-
-            List<Session> sessions = sessionService.findByCreatorOrderByCreatedAtDesc(userOpt.get());
-            System.out.println("Retrieved " + sessions.size() + " sessions for user: " + email);
-            return ResponseEntity.ok(sessions);
+            return ResponseEntity.ok(new SessionHistoryPage(sessions, nextCursor));
             
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             System.err.println("Error fetching session history: " + e.getMessage());
             return ResponseEntity.status(500).build();
@@ -135,6 +152,8 @@ public class SessionController {
             Session.SessionStatus status = Session.SessionStatus.valueOf(request.get("status"));
             Session session = sessionService.updateSessionStatus(id, status);
             return ResponseEntity.ok(session);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -144,8 +163,12 @@ public class SessionController {
     public ResponseEntity<Session> updateCurrentCycle(@PathVariable Long id, @RequestBody Map<String, Integer> request) {
         try {
             Integer cycle = request.get("cycle");
-            Session session = sessionService.updateCurrentCycle(id, cycle);
+            // Optional: only advance if the session is still on this cycle
+            Integer expectedCycle = request.get("expectedCycle");
+            Session session = sessionService.updateCurrentCycle(id, cycle, expectedCycle);
             return ResponseEntity.ok(session);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -156,6 +179,8 @@ public class SessionController {
         try {
             Session session = sessionService.checkAndUpdateCompletion(id);
             return ResponseEntity.ok(session);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -171,6 +196,8 @@ public class SessionController {
                 request.getIsBreak()
             );
             return ResponseEntity.ok(session);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -180,18 +207,36 @@ public class SessionController {
     public ResponseEntity<Session> joinSession(@PathVariable Long id, @RequestBody Map<String, Long> request) {
         try {
             Long userId = request.get("userId");
-            Optional<User> userOpt = userService.findById(userId);
-            if (userOpt.isEmpty()) {
+            Optional<IdentityCache.Identity> identity = identityCache.findById(userId);
+            if (identity.isEmpty()) {
                 return ResponseEntity.badRequest().build();
             }
             
-            Session session = sessionService.joinSession(id, userOpt.get());
+            Session session = sessionService.joinSession(id, identity.get().toUser());
             return ResponseEntity.ok(session);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    public static class SessionHistoryPage {
+        private final List<SessionRepository.SessionSummary> sessions;
+        private final String nextCursor;
+        
+        public SessionHistoryPage(List<SessionRepository.SessionSummary> sessions, String nextCursor) {
+            this.sessions = sessions;
+            this.nextCursor = nextCursor;
+        }
+        
+        public List<SessionRepository.SessionSummary> getSessions() {
+            return sessions;
+        }
+        
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+    
     public static class CreateSessionRequest {
         private double durationMinutes;
         private double breakMinutes;
@@ -0,0 +1,35 @@
+package com.example.focusflow.controller;
+
+import com.example.focusflow.entity.FocusRollup;
+import com.example.focusflow.service.FocusRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+public class StatsController {
+    
+    @Autowired
+    private FocusRollupService focusRollupService;
+    
+    @GetMapping("/focus")
+    public ResponseEntity<List<FocusRollupService.FocusBucket>> getGlobalFocusHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(89);
+            return ResponseEntity.ok(focusRollupService.getRange(FocusRollup.GLOBAL_USER_ID, start, end,
+                FocusRollupService.parseGranularity(granularity)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
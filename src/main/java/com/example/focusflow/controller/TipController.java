@@ -1,5 +1,8 @@
 package com.example.focusflow.controller;
 
+import com.example.focusflow.entity.ActivityLog;
+import com.example.focusflow.service.ActivityLogPipeline;
+import com.example.focusflow.service.IdentityCache;
 import com.example.focusflow.service.TipService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -13,15 +16,28 @@ public class TipController {
     @Autowired
     private TipService tipService;
     
+    @Autowired
+    private ActivityLogPipeline activityLogPipeline;
+    
+    @Autowired
+    private IdentityCache identityCache;
+    
     @PostMapping
     public ResponseEntity<TipResponse> getTip(@RequestBody TipRequest request) {
-        String tip = tipService.getContextualTip(request.getContext());
+        String tip = tipService.getContextualTip(request.getContext(), request.getUserId());
+        
+        // The id comes from the request body; an unknown one would fail the foreign key and slow the whole batch
+        Long userId = request.getUserId() != null
+            ? identityCache.findById(request.getUserId()).map(IdentityCache.Identity::id).orElse(null)
+            : null;
+        activityLogPipeline.publish(userId, null, ActivityLog.ActivityType.TIP_REQUESTED,
+            "Tip requested for context: " + request.getContext());
         return ResponseEntity.ok(new TipResponse(tip));
     }
     
     @GetMapping("/random")
-    public ResponseEntity<TipResponse> getRandomTip() {
-        String tip = tipService.getRandomTip();
+    public ResponseEntity<TipResponse> getRandomTip(@RequestParam(required = false) Long userId) {
+        String tip = tipService.getRandomTip(userId);
         return ResponseEntity.ok(new TipResponse(tip));
     }
     
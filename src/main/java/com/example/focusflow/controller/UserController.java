@@ -1,11 +1,18 @@
 package com.example.focusflow.controller;
 
 import com.example.focusflow.entity.User;
+import com.example.focusflow.entity.UserStats;
+import com.example.focusflow.service.FocusRollupService;
 import com.example.focusflow.service.UserService;
+import com.example.focusflow.service.UserStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "*")
@@ -14,6 +21,12 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserStatsService userStatsService;
+    
+    @Autowired
+    private FocusRollupService focusRollupService;
+    
     @PostMapping("/anonymous")
     public ResponseEntity<User> createAnonymousUser() {
         User user = userService.createAnonymousUser();
@@ -26,4 +39,23 @@ public class UserController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+    
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<UserStats> getUserStats(@PathVariable Long id) {
+        return ResponseEntity.ok(userStatsService.getStats(id));
+    }
+    
+    @GetMapping("/{id}/focus")
+    public ResponseEntity<List<FocusRollupService.FocusBucket>> getFocusHistory(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(89);
+            return ResponseEntity.ok(focusRollupService.getRange(id, start, end, FocusRollupService.parseGranularity(granularity)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "activity_logs")
+@Table(name = "activity_logs", indexes = {
+    @Index(name = "idx_activity_logs_user_created", columnList = "user_id, created_at"),
+    @Index(name = "idx_activity_logs_session_created", columnList = "session_id, created_at"),
+    @Index(name = "idx_activity_logs_partition", columnList = "partition_month")
+})
 public class ActivityLog {
     
     @Id
@@ -29,9 +33,14 @@ public class ActivityLog {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // Month of created_at as yyyymm; retention compacts and drops whole months
+    @Column(name = "partition_month", nullable = false)
+    private int partitionMonth;
+    
     // Constructors
     public ActivityLog() {
         this.createdAt = LocalDateTime.now();
+        this.partitionMonth = partitionOf(this.createdAt);
     }
     
     public ActivityLog(User user, Session session, ActivityType type, String message) {
@@ -89,6 +98,17 @@ public class ActivityLog {
     
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
+        if (createdAt != null) {
+            this.partitionMonth = partitionOf(createdAt);
+        }
+    }
+    
+    public int getPartitionMonth() {
+        return partitionMonth;
+    }
+    
+    public static int partitionOf(LocalDateTime time) {
+        return time.getYear() * 100 + time.getMonthValue();
     }
     
     public enum ActivityType {
@@ -0,0 +1,49 @@
+package com.example.focusflow.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "activity_log_partitions")
+public class ActivityLogPartition {
+    
+    // yyyymm, matching ActivityLog.partitionMonth
+    @Id
+    @Column(name = "partition_month")
+    private Integer partitionMonth;
+    
+    @Column(name = "compacted_at")
+    private LocalDateTime compactedAt;
+    
+    @Column(name = "dropped_at")
+    private LocalDateTime droppedAt;
+    
+    // Constructors
+    public ActivityLogPartition() {
+    }
+    
+    // Getters and Setters
+    public Integer getPartitionMonth() {
+        return partitionMonth;
+    }
+    
+    public void setPartitionMonth(Integer partitionMonth) {
+        this.partitionMonth = partitionMonth;
+    }
+    
+    public LocalDateTime getCompactedAt() {
+        return compactedAt;
+    }
+    
+    public void setCompactedAt(LocalDateTime compactedAt) {
+        this.compactedAt = compactedAt;
+    }
+    
+    public LocalDateTime getDroppedAt() {
+        return droppedAt;
+    }
+    
+    public void setDroppedAt(LocalDateTime droppedAt) {
+        this.droppedAt = droppedAt;
+    }
+}
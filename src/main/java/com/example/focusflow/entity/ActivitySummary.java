@@ -0,0 +1,107 @@
+package com.example.focusflow.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "activity_summaries", indexes = {
+    @Index(name = "idx_activity_summaries_user", columnList = "user_id, partition_month"),
+    @Index(name = "idx_activity_summaries_session", columnList = "session_id")
+})
+public class ActivitySummary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "session_id")
+    private Long sessionId;
+    
+    @Column(name = "partition_month", nullable = false)
+    private int partitionMonth;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ActivityLog.ActivityType type;
+    
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+    
+    @Column(name = "first_at")
+    private LocalDateTime firstAt;
+    
+    @Column(name = "last_at")
+    private LocalDateTime lastAt;
+    
+    // Constructors
+    public ActivitySummary() {
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getSessionId() {
+        return sessionId;
+    }
+    
+    public void setSessionId(Long sessionId) {
+        this.sessionId = sessionId;
+    }
+    
+    public int getPartitionMonth() {
+        return partitionMonth;
+    }
+    
+    public void setPartitionMonth(int partitionMonth) {
+        this.partitionMonth = partitionMonth;
+    }
+    
+    public ActivityLog.ActivityType getType() {
+        return type;
+    }
+    
+    public void setType(ActivityLog.ActivityType type) {
+        this.type = type;
+    }
+    
+    public long getEventCount() {
+        return eventCount;
+    }
+    
+    public void setEventCount(long eventCount) {
+        this.eventCount = eventCount;
+    }
+    
+    public LocalDateTime getFirstAt() {
+        return firstAt;
+    }
+    
+    public void setFirstAt(LocalDateTime firstAt) {
+        this.firstAt = firstAt;
+    }
+    
+    public LocalDateTime getLastAt() {
+        return lastAt;
+    }
+    
+    public void setLastAt(LocalDateTime lastAt) {
+        this.lastAt = lastAt;
+    }
+}
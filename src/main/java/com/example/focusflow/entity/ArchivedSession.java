@@ -0,0 +1,119 @@
+package com.example.focusflow.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "archived_sessions", indexes = {
+    @Index(name = "idx_archived_sessions_code", columnList = "session_code"),
+    @Index(name = "idx_archived_sessions_creator_created", columnList = "creator_id, created_at, id")
+})
+public class ArchivedSession {
+    
+    // Same id the session had in the sessions table
+    @Id
+    private Long id;
+    
+    // Not unique: codes leave the hot table's unique index when archived
+    @Column(name = "session_code", nullable = false)
+    private String sessionCode;
+    
+    @Column(name = "creator_id", nullable = false)
+    private Long creatorId;
+    
+    @Column(name = "duration_minutes", nullable = false)
+    private double durationMinutes;
+    
+    @Column(name = "break_minutes", nullable = false)
+    private double breakMinutes;
+    
+    @Column(name = "long_break_minutes", nullable = false)
+    private double longBreakMinutes;
+    
+    @Column(name = "total_cycles", nullable = false)
+    private int totalCycles;
+    
+    @Column(name = "current_cycle")
+    private int currentCycle;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Session.SessionStatus status;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    @Column(name = "current_time_left")
+    private Integer currentTimeLeft;
+    
+    @Column(name = "is_running")
+    private Boolean isRunning;
+    
+    @Column(name = "is_break")
+    private Boolean isBreak;
+    
+    @Column(name = "timer_started_at")
+    private LocalDateTime timerStartedAt;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    // Constructors
+    public ArchivedSession() {
+    }
+    
+    /**
+     * Read-only session view of this row, for lookups that fall through to the archive.
+     */
+    public Session toSession(User creator) {
+        Session session = new Session();
+        session.setId(id);
+        session.setSessionCode(sessionCode);
+        session.setCreator(creator);
+        session.setDurationMinutes(durationMinutes);
+        session.setBreakMinutes(breakMinutes);
+        session.setLongBreakMinutes(longBreakMinutes);
+        session.setTotalCycles(totalCycles);
+        session.setCurrentCycle(currentCycle);
+        session.setStatus(status);
+        session.setCreatedAt(createdAt);
+        session.setStartedAt(startedAt);
+        session.setCompletedAt(completedAt);
+        session.setCurrentTimeLeft(currentTimeLeft);
+        session.setIsRunning(isRunning);
+        session.setIsBreak(isBreak);
+        session.setTimerStartedAt(timerStartedAt);
+        return session;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public String getSessionCode() {
+        return sessionCode;
+    }
+    
+    public Long getCreatorId() {
+        return creatorId;
+    }
+    
+    public Session.SessionStatus getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.focusflow.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "focus_daily_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_focus_rollups_user_day", columnNames = {"user_id", "bucket_date"})
+})
+public class FocusRollup {
+
+    // Rows with this user id hold the totals across all users
+    public static final long GLOBAL_USER_ID = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "focus_minutes", nullable = false)
+    private double focusMinutes;
+
+    @Column(name = "completed_cycles", nullable = false)
+    private long completedCycles;
+
+    @Column(name = "completed_sessions", nullable = false)
+    private long completedSessions;
+
+    // Constructors
+    public FocusRollup() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getBucketDate() {
+        return bucketDate;
+    }
+
+    public void setBucketDate(LocalDate bucketDate) {
+        this.bucketDate = bucketDate;
+    }
+
+    public double getFocusMinutes() {
+        return focusMinutes;
+    }
+
+    public void setFocusMinutes(double focusMinutes) {
+        this.focusMinutes = focusMinutes;
+    }
+
+    public long getCompletedCycles() {
+        return completedCycles;
+    }
+
+    public void setCompletedCycles(long completedCycles) {
+        this.completedCycles = completedCycles;
+    }
+
+    public long getCompletedSessions() {
+        return completedSessions;
+    }
+
+    public void setCompletedSessions(long completedSessions) {
+        this.completedSessions = completedSessions;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.focusflow.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "identifier_sequences")
+public class IdentifierSequence {
+    
+    @Id
+    private String name;
+    
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+    
+    // Constructors
+    public IdentifierSequence() {
+    }
+    
+    public IdentifierSequence(String name, long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public long getNextValue() {
+        return nextValue;
+    }
+    
+    public void setNextValue(long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
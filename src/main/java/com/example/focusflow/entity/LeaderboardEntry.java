@@ -0,0 +1,83 @@
+package com.example.focusflow.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "leaderboard_entries", indexes = {
+    @Index(name = "idx_leaderboard_board_rank", columnList = "board, rank_position")
+})
+public class LeaderboardEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String board;
+    
+    @Column(name = "rank_position", nullable = false)
+    private int rank;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(nullable = false)
+    private double score;
+    
+    @Column(name = "checkpointed_at")
+    private LocalDateTime checkpointedAt;
+    
+    // Constructors
+    public LeaderboardEntry() {
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getBoard() {
+        return board;
+    }
+    
+    public void setBoard(String board) {
+        this.board = board;
+    }
+    
+    public int getRank() {
+        return rank;
+    }
+    
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public double getScore() {
+        return score;
+    }
+    
+    public void setScore(double score) {
+        this.score = score;
+    }
+    
+    public LocalDateTime getCheckpointedAt() {
+        return checkpointedAt;
+    }
+    
+    public void setCheckpointedAt(LocalDateTime checkpointedAt) {
+        this.checkpointedAt = checkpointedAt;
+    }
+}
@@ -4,7 +4,14 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sessions")
+@Table(name = "sessions", indexes = {
+    // Serves keyset-paginated history: newest first per creator
+    @Index(name = "idx_sessions_creator_created", columnList = "creator_id, created_at, id"),
+    // Finds finished sessions old enough to archive
+    @Index(name = "idx_sessions_status_created", columnList = "status, created_at"),
+    // Finds running sessions whose timer was started long ago
+    @Index(name = "idx_sessions_status_timer_started", columnList = "status, timer_started_at")
+})
 public class Session {
     
     @Id
@@ -58,6 +65,10 @@ public class Session {
     @Column(name = "timer_started_at")
     private LocalDateTime timerStartedAt;
     
+    @Version
+    @Column(name = "version")
+    private Long version;
+    
     // Constructors
     public Session() {
         this.createdAt = LocalDateTime.now();
@@ -192,6 +203,39 @@ public class Session {
         this.timerStartedAt = timerStartedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    /**
+     * Detached copy of this session's state, sharing the creator reference.
+     */
+    public Session copy() {
+        Session copy = new Session();
+        copy.setId(id);
+        copy.setSessionCode(sessionCode);
+        copy.setCreator(creator);
+        copy.setDurationMinutes(durationMinutes);
+        copy.setBreakMinutes(breakMinutes);
+        copy.setLongBreakMinutes(longBreakMinutes);
+        copy.setTotalCycles(totalCycles);
+        copy.setCurrentCycle(currentCycle);
+        copy.setStatus(status);
+        copy.setCreatedAt(createdAt);
+        copy.setStartedAt(startedAt);
+        copy.setCompletedAt(completedAt);
+        copy.setCurrentTimeLeft(currentTimeLeft);
+        copy.setIsRunning(isRunning);
+        copy.setIsBreak(isBreak);
+        copy.setTimerStartedAt(timerStartedAt);
+        copy.setVersion(version);
+        return copy;
+    }
+    
     public enum SessionStatus {
         CREATED, ACTIVE, PAUSED, COMPLETED, ENDED_EARLY
     }
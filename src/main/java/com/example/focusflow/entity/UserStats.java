@@ -0,0 +1,125 @@
+package com.example.focusflow.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_stats")
+public class UserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "total_focus_minutes", nullable = false)
+    private double totalFocusMinutes;
+
+    @Column(name = "completed_cycles", nullable = false)
+    private long completedCycles;
+
+    @Column(name = "completed_sessions", nullable = false)
+    private long completedSessions;
+
+    @Column(name = "current_streak_days", nullable = false)
+    private int currentStreakDays;
+
+    @Column(name = "longest_streak_days", nullable = false)
+    private int longestStreakDays;
+
+    @Column(name = "last_focus_date")
+    private LocalDate lastFocusDate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public UserStats() {
+    }
+
+    public UserStats(Long userId) {
+        this.userId = userId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public UserStats(UserStats other) {
+        copyFrom(other);
+    }
+
+    // Overwrites every field with the other's values, in place
+    public void copyFrom(UserStats other) {
+        this.userId = other.userId;
+        this.totalFocusMinutes = other.totalFocusMinutes;
+        this.completedCycles = other.completedCycles;
+        this.completedSessions = other.completedSessions;
+        this.currentStreakDays = other.currentStreakDays;
+        this.longestStreakDays = other.longestStreakDays;
+        this.lastFocusDate = other.lastFocusDate;
+        this.updatedAt = other.updatedAt;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public double getTotalFocusMinutes() {
+        return totalFocusMinutes;
+    }
+
+    public void setTotalFocusMinutes(double totalFocusMinutes) {
+        this.totalFocusMinutes = totalFocusMinutes;
+    }
+
+    public long getCompletedCycles() {
+        return completedCycles;
+    }
+
+    public void setCompletedCycles(long completedCycles) {
+        this.completedCycles = completedCycles;
+    }
+
+    public long getCompletedSessions() {
+        return completedSessions;
+    }
+
+    public void setCompletedSessions(long completedSessions) {
+        this.completedSessions = completedSessions;
+    }
+
+    public int getCurrentStreakDays() {
+        return currentStreakDays;
+    }
+
+    public void setCurrentStreakDays(int currentStreakDays) {
+        this.currentStreakDays = currentStreakDays;
+    }
+
+    public int getLongestStreakDays() {
+        return longestStreakDays;
+    }
+
+    public void setLongestStreakDays(int longestStreakDays) {
+        this.longestStreakDays = longestStreakDays;
+    }
+
+    public LocalDate getLastFocusDate() {
+        return lastFocusDate;
+    }
+
+    public void setLastFocusDate(LocalDate lastFocusDate) {
+        this.lastFocusDate = lastFocusDate;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
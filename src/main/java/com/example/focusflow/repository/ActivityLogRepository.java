@@ -3,14 +3,36 @@ package com.example.focusflow.repository;
 import com.example.focusflow.entity.ActivityLog;
 import com.example.focusflow.entity.Session;
 import com.example.focusflow.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
     List<ActivityLog> findByUserOrderByCreatedAtDesc(User user);
     List<ActivityLog> findBySessionOrderByCreatedAtDesc(Session session);
     List<ActivityLog> findByUserAndSessionOrderByCreatedAtDesc(User user, Session session);
+    
+    // Full log for export, read with a bounded JDBC fetch size; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a.id AS id, a.session.id AS sessionId, a.type AS type, a.message AS message, a.createdAt AS createdAt " +
+           "FROM ActivityLog a WHERE a.user.id = :userId ORDER BY a.createdAt, a.id")
+    Stream<ActivityLogEntry> streamByUserId(@Param("userId") Long userId);
+    
+    // Flat view of a log row without the user and session associations
+    interface ActivityLogEntry {
+        Long getId();
+        Long getSessionId();
+        ActivityLog.ActivityType getType();
+        String getMessage();
+        LocalDateTime getCreatedAt();
+    }
 }
@@ -0,0 +1,55 @@
+package com.example.focusflow.repository;
+
+import com.example.focusflow.entity.ArchivedSession;
+import com.example.focusflow.entity.Session;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Cold counterparts of the SessionRepository read queries, returning the same projections
+@Repository
+public interface ArchivedSessionRepository extends JpaRepository<ArchivedSession, Long> {
+    Optional<ArchivedSession> findFirstBySessionCodeOrderByArchivedAtDesc(String sessionCode);
+    
+    @Query("SELECT a.id AS id, a.sessionCode AS sessionCode, a.durationMinutes AS durationMinutes, " +
+           "a.breakMinutes AS breakMinutes, a.longBreakMinutes AS longBreakMinutes, a.totalCycles AS totalCycles, " +
+           "a.currentCycle AS currentCycle, a.status AS status, a.isBreak AS isBreak, a.createdAt AS createdAt, " +
+           "a.startedAt AS startedAt, a.completedAt AS completedAt " +
+           "FROM ArchivedSession a WHERE a.creatorId = :creatorId AND (:status IS NULL OR a.status = :status) " +
+           "AND a.createdAt >= :from " +
+           "AND (a.createdAt < :beforeCreatedAt OR (a.createdAt = :beforeCreatedAt AND a.id < :beforeId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<SessionRepository.SessionSummary> findHistoryPage(@Param("creatorId") Long creatorId,
+                                                           @Param("status") Session.SessionStatus status,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                                           @Param("beforeId") Long beforeId,
+                                                           Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a.id AS id, a.sessionCode AS sessionCode, a.durationMinutes AS durationMinutes, " +
+           "a.breakMinutes AS breakMinutes, a.longBreakMinutes AS longBreakMinutes, a.totalCycles AS totalCycles, " +
+           "a.currentCycle AS currentCycle, a.status AS status, a.isBreak AS isBreak, a.createdAt AS createdAt, " +
+           "a.startedAt AS startedAt, a.completedAt AS completedAt " +
+           "FROM ArchivedSession a WHERE a.creatorId = :creatorId ORDER BY a.createdAt DESC, a.id DESC")
+    Stream<SessionRepository.SessionSummary> streamByCreatorId(@Param("creatorId") Long creatorId);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a.id AS id, a.creatorId AS creatorId, a.durationMinutes AS durationMinutes, a.totalCycles AS totalCycles, " +
+           "a.currentCycle AS currentCycle, a.status AS status, a.isBreak AS isBreak, a.createdAt AS createdAt " +
+           "FROM ArchivedSession a")
+    Stream<SessionRepository.SessionProgress> streamAllProgress();
+    
+    @Query("SELECT DISTINCT a.creatorId FROM ArchivedSession a")
+    List<Long> findCreatorIds();
+}
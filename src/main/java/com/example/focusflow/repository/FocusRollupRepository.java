@@ -0,0 +1,13 @@
+package com.example.focusflow.repository;
+
+import com.example.focusflow.entity.FocusRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface FocusRollupRepository extends JpaRepository<FocusRollup, Long> {
+    List<FocusRollup> findByUserIdAndBucketDateBetweenOrderByBucketDate(Long userId, LocalDate from, LocalDate to);
+}
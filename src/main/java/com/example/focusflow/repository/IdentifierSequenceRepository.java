@@ -0,0 +1,18 @@
+package com.example.focusflow.repository;
+
+import com.example.focusflow.entity.IdentifierSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IdentifierSequenceRepository extends JpaRepository<IdentifierSequence, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM IdentifierSequence s WHERE s.name = :name")
+    Optional<IdentifierSequence> findForUpdate(@Param("name") String name);
+}
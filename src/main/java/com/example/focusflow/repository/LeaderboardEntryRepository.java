@@ -0,0 +1,12 @@
+package com.example.focusflow.repository;
+
+import com.example.focusflow.entity.LeaderboardEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeaderboardEntryRepository extends JpaRepository<LeaderboardEntry, Long> {
+    List<LeaderboardEntry> findByBoardOrderByRank(String board);
+}
@@ -1,16 +1,147 @@
 package com.example.focusflow.repository;
 
 import com.example.focusflow.entity.Session;
-import com.example.focusflow.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, Long> {
+    // Creator is fetched eagerly so loaded sessions can be cached and serialized outside a request
+    @Override
+    @EntityGraph(attributePaths = "creator")
+    Optional<Session> findById(Long id);
+    
+    @EntityGraph(attributePaths = "creator")
     Optional<Session> findBySessionCode(String sessionCode);
     boolean existsBySessionCode(String sessionCode);
-    List<Session> findByCreatorOrderByCreatedAtDesc(User creator);
+    
+    @EntityGraph(attributePaths = "creator")
+    List<Session> findByIdIn(Collection<Long> ids);
+    
+    // History page strictly older than the (createdAt, id) cursor, newest first
+    @Query("SELECT s.id AS id, s.sessionCode AS sessionCode, s.durationMinutes AS durationMinutes, " +
+           "s.breakMinutes AS breakMinutes, s.longBreakMinutes AS longBreakMinutes, s.totalCycles AS totalCycles, " +
+           "s.currentCycle AS currentCycle, s.status AS status, s.isBreak AS isBreak, s.createdAt AS createdAt, " +
+           "s.startedAt AS startedAt, s.completedAt AS completedAt " +
+           "FROM Session s WHERE s.creator.id = :creatorId AND (:status IS NULL OR s.status = :status) " +
+           "AND s.createdAt >= :from " +
+           "AND (s.createdAt < :beforeCreatedAt OR (s.createdAt = :beforeCreatedAt AND s.id < :beforeId)) " +
+           "ORDER BY s.createdAt DESC, s.id DESC")
+    List<SessionSummary> findHistoryPage(@Param("creatorId") Long creatorId,
+                                         @Param("status") Session.SessionStatus status,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                         @Param("beforeId") Long beforeId,
+                                         Pageable pageable);
+    
+    // Ids of sessions whose timer was left running, in id order after the given one, for re-arming timers on startup
+    @Query("SELECT s.id FROM Session s WHERE s.status = :status AND s.isRunning = TRUE AND s.id > :afterId ORDER BY s.id")
+    List<Long> findRunningIdsAfter(@Param("status") Session.SessionStatus status, @Param("afterId") Long afterId,
+                                   Pageable pageable);
+    
+    // Targeted updates guarded by the version column; they return 0 when the session changed underneath.
+    // Each also writes every write-behind timer column, so pending in-memory timer state goes out with it.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Session s SET s.status = :status, s.startedAt = :startedAt, s.completedAt = :completedAt, " +
+           "s.currentCycle = :currentCycle, s.currentTimeLeft = :currentTimeLeft, s.isRunning = :isRunning, " +
+           "s.isBreak = :isBreak, s.timerStartedAt = :timerStartedAt, " +
+           "s.version = s.version + 1 WHERE s.id = :id AND s.version = :version")
+    int updateStatus(@Param("id") Long id, @Param("version") Long version,
+                     @Param("status") Session.SessionStatus status,
+                     @Param("startedAt") LocalDateTime startedAt,
+                     @Param("completedAt") LocalDateTime completedAt,
+                     @Param("currentCycle") int currentCycle,
+                     @Param("currentTimeLeft") Integer currentTimeLeft,
+                     @Param("isRunning") Boolean isRunning,
+                     @Param("isBreak") Boolean isBreak,
+                     @Param("timerStartedAt") LocalDateTime timerStartedAt);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Session s SET s.currentCycle = :currentCycle, s.status = :status, s.completedAt = :completedAt, " +
+           "s.currentTimeLeft = :currentTimeLeft, s.isRunning = :isRunning, s.isBreak = :isBreak, " +
+           "s.timerStartedAt = :timerStartedAt, s.version = s.version + 1 WHERE s.id = :id AND s.version = :version")
+    int updateProgress(@Param("id") Long id, @Param("version") Long version,
+                       @Param("currentCycle") int currentCycle,
+                       @Param("status") Session.SessionStatus status,
+                       @Param("completedAt") LocalDateTime completedAt,
+                       @Param("currentTimeLeft") Integer currentTimeLeft,
+                       @Param("isRunning") Boolean isRunning,
+                       @Param("isBreak") Boolean isBreak,
+                       @Param("timerStartedAt") LocalDateTime timerStartedAt);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Session s SET s.currentTimeLeft = :currentTimeLeft, s.isRunning = :isRunning, s.isBreak = :isBreak, " +
+           "s.timerStartedAt = :timerStartedAt, s.currentCycle = :currentCycle, " +
+           "s.version = s.version + 1 WHERE s.id = :id AND s.version = :version")
+    int updateTimerState(@Param("id") Long id, @Param("version") Long version,
+                         @Param("currentTimeLeft") Integer currentTimeLeft,
+                         @Param("isRunning") Boolean isRunning,
+                         @Param("isBreak") Boolean isBreak,
+                         @Param("timerStartedAt") LocalDateTime timerStartedAt,
+                         @Param("currentCycle") int currentCycle);
+    
+    // Full history for export, read with a bounded JDBC fetch size; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s.id AS id, s.sessionCode AS sessionCode, s.durationMinutes AS durationMinutes, " +
+           "s.breakMinutes AS breakMinutes, s.longBreakMinutes AS longBreakMinutes, s.totalCycles AS totalCycles, " +
+           "s.currentCycle AS currentCycle, s.status AS status, s.isBreak AS isBreak, s.createdAt AS createdAt, " +
+           "s.startedAt AS startedAt, s.completedAt AS completedAt " +
+           "FROM Session s WHERE s.creator.id = :creatorId ORDER BY s.createdAt DESC, s.id DESC")
+    Stream<SessionSummary> streamByCreatorId(@Param("creatorId") Long creatorId);
+    
+    // Progress of every session, for rebuilding in-memory aggregates; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s.id AS id, s.creator.id AS creatorId, s.durationMinutes AS durationMinutes, s.totalCycles AS totalCycles, " +
+           "s.currentCycle AS currentCycle, s.status AS status, s.isBreak AS isBreak, s.createdAt AS createdAt " +
+           "FROM Session s")
+    Stream<SessionProgress> streamAllProgress();
+    
+    @Query("SELECT DISTINCT s.creator.id FROM Session s")
+    List<Long> findCreatorIds();
+    
+    // Lightweight read-only view of a session for history listings
+    interface SessionSummary {
+        Long getId();
+        String getSessionCode();
+        double getDurationMinutes();
+        double getBreakMinutes();
+        double getLongBreakMinutes();
+        int getTotalCycles();
+        int getCurrentCycle();
+        Session.SessionStatus getStatus();
+        Boolean getIsBreak();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getStartedAt();
+        LocalDateTime getCompletedAt();
+    }
+    
+    // Just the fields needed to recompute credited focus
+    interface SessionProgress {
+        Long getId();
+        Long getCreatorId();
+        double getDurationMinutes();
+        int getTotalCycles();
+        int getCurrentCycle();
+        Session.SessionStatus getStatus();
+        Boolean getIsBreak();
+        LocalDateTime getCreatedAt();
+    }
 }
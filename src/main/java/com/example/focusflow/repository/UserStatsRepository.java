@@ -0,0 +1,9 @@
+package com.example.focusflow.repository;
+
+import com.example.focusflow.entity.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+}
@@ -0,0 +1,178 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.ActivityLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous writer for {@link ActivityLog} rows.
+ *
+ * Callers publish events without blocking on the database; events go into a
+ * {@link BoundedEventQueue} and a single background thread drains them into
+ * JDBC batch inserts. What happens when producers outrun the writer is set by
+ * the overflow policy (drop, block or sample). Activity logs are best effort:
+ * events dropped on overflow, or rows that still fail when a rejected batch is
+ * retried row by row, are counted and discarded.
+ */
+@Service
+public class ActivityLogPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogPipeline.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO activity_logs (user_id, session_id, type, message, created_at, partition_month) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_MESSAGE_LENGTH = 255;
+
+    @Value("${focusflow.activity.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${focusflow.activity.batch-size:500}")
+    private int batchSize;
+
+    @Value("${focusflow.activity.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${focusflow.activity.overflow-policy:drop}")
+    private String overflowPolicy;
+
+    @Value("${focusflow.activity.block-timeout-ms:50}")
+    private long blockTimeoutMs;
+
+    @Value("${focusflow.activity.sample-every:10}")
+    private int sampleEvery;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BoundedEventQueue<ActivityEvent> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Counter accepted;
+    private Counter dropped;
+    private Counter sampledOut;
+    private Counter written;
+    private Counter failed;
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    public void init() {
+        BoundedEventQueue.OverflowPolicy policy = BoundedEventQueue.OverflowPolicy.valueOf(overflowPolicy.toUpperCase(Locale.ROOT));
+        queue = new BoundedEventQueue<>(queueCapacity, batchSize, policy, blockTimeoutMs, sampleEvery);
+
+        accepted = Counter.builder("focusflow.activity.events").tag("outcome", "accepted").register(meterRegistry);
+        dropped = Counter.builder("focusflow.activity.events").tag("outcome", "dropped").register(meterRegistry);
+        sampledOut = Counter.builder("focusflow.activity.events").tag("outcome", "sampled_out").register(meterRegistry);
+        written = Counter.builder("focusflow.activity.rows.written").register(meterRegistry);
+        failed = Counter.builder("focusflow.activity.rows.failed").register(meterRegistry);
+        batchSizes = DistributionSummary.builder("focusflow.activity.batch.size").register(meterRegistry);
+        Gauge.builder("focusflow.activity.queue.depth", queue, BoundedEventQueue::size).register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::drainLoop, "activity-log-writer");
+        writer.setDaemon(true);
+        queue.setConsumer(writer);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public void publish(Long userId, Long sessionId, ActivityLog.ActivityType type, String message) {
+        if (userId == null) {
+            return;
+        }
+        if (message != null && message.length() > MAX_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_MESSAGE_LENGTH);
+        }
+        switch (queue.offer(new ActivityEvent(userId, sessionId, type, message, LocalDateTime.now()))) {
+            case ACCEPTED -> accepted.increment();
+            case DROPPED -> dropped.increment();
+            case SAMPLED_OUT -> sampledOut.increment();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<ActivityEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (queue.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+        // Shutting down: write whatever is left
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<ActivityEvent> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (ActivityEvent event : batch) {
+            rows.add(new Object[] {
+                event.userId(), event.sessionId(), event.type().name(), event.message(),
+                Timestamp.valueOf(event.createdAt()), ActivityLog.partitionOf(event.createdAt())
+            });
+        }
+        try {
+            // All or nothing, so the row-by-row retry below cannot duplicate rows
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+            written.increment(rows.size());
+            batchSizes.record(rows.size());
+        } catch (Exception e) {
+            // One bad row (e.g. an unknown user id) fails the whole batch; write the rest one by one
+            log.warn("Error writing activity log batch of {}, retrying rows individually", rows.size(), e);
+            rows.forEach(this::writeRow);
+        }
+    }
+
+    private void writeRow(Object[] row) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, row);
+            written.increment();
+        } catch (Exception e) {
+            failed.increment();
+        }
+    }
+
+    private record ActivityEvent(Long userId, Long sessionId, ActivityLog.ActivityType type, String message,
+                                 LocalDateTime createdAt) {
+    }
+}
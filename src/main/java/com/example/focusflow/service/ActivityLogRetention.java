@@ -0,0 +1,103 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.ActivityLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retention for activity_logs, one month partition at a time.
+ *
+ * Raw events are partitioned by the month they were created in. Once a month
+ * is older than the retention period its events are compacted into one
+ * activity_summaries row per user, session and event type, and the month is
+ * recorded as compacted in the same transaction. The raw rows are then deleted
+ * in bounded batches, each its own short transaction, so the job never holds
+ * long locks and can resume after a restart without summarizing twice.
+ */
+@Service
+public class ActivityLogRetention {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogRetention.class);
+
+    private static final String EXPIRED_MONTHS_SQL =
+        "SELECT DISTINCT partition_month FROM activity_logs WHERE partition_month < ? ORDER BY partition_month";
+    private static final String IS_COMPACTED_SQL =
+        "SELECT COUNT(*) FROM activity_log_partitions WHERE partition_month = ? AND compacted_at IS NOT NULL";
+    private static final String SUMMARIZE_SQL =
+        "INSERT INTO activity_summaries (user_id, session_id, partition_month, type, event_count, first_at, last_at) " +
+        "SELECT user_id, session_id, partition_month, type, COUNT(*), MIN(created_at), MAX(created_at) " +
+        "FROM activity_logs WHERE partition_month = ? GROUP BY user_id, session_id, partition_month, type";
+    private static final String MARK_COMPACTED_SQL =
+        "INSERT INTO activity_log_partitions (partition_month, compacted_at) VALUES (?, ?)";
+    private static final String MARK_DROPPED_SQL =
+        "UPDATE activity_log_partitions SET dropped_at = ? WHERE partition_month = ?";
+    private static final String BATCH_IDS_SQL =
+        "SELECT id FROM activity_logs WHERE partition_month = ? ORDER BY id LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM activity_logs WHERE id = ?";
+
+    @Value("${focusflow.activity.retention-months:3}")
+    private int retentionMonths;
+
+    @Value("${focusflow.activity.retention-batch-size:5000}")
+    private int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${focusflow.activity.retention-cron:0 30 3 * * *}")
+    public void compactExpiredPartitions() {
+        int cutoff = ActivityLog.partitionOf(LocalDateTime.now().minusMonths(retentionMonths));
+        List<Integer> months = jdbcTemplate.queryForList(EXPIRED_MONTHS_SQL, Integer.class, cutoff);
+        for (Integer month : months) {
+            try {
+                compact(month);
+                long deleted = drop(month);
+                log.debug("Compacted activity log partition {}, removed {} raw events", month, deleted);
+            } catch (Exception e) {
+                log.warn("Error compacting activity log partition {}", month, e);
+            }
+        }
+    }
+
+    private void compact(int month) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Integer compacted = jdbcTemplate.queryForObject(IS_COMPACTED_SQL, Integer.class, month);
+            if (compacted != null && compacted > 0) {
+                // Summarized on an earlier run that did not finish deleting
+                return;
+            }
+            jdbcTemplate.update(SUMMARIZE_SQL, month);
+            jdbcTemplate.update(MARK_COMPACTED_SQL, month, Timestamp.valueOf(LocalDateTime.now()));
+        });
+    }
+
+    private long drop(int month) {
+        long deleted = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(BATCH_IDS_SQL, Long.class, month, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Object[]> rows = new ArrayList<>(ids.size());
+            ids.forEach(id -> rows.add(new Object[] { id }));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(DELETE_SQL, rows));
+            deleted += ids.size();
+        }
+        jdbcTemplate.update(MARK_DROPPED_SQL, Timestamp.valueOf(LocalDateTime.now()), month);
+        return deleted;
+    }
+}
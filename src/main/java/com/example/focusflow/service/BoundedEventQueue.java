@@ -0,0 +1,133 @@
+package com.example.focusflow.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer queue with a configurable overflow policy.
+ *
+ * Producers never take a lock: capacity is claimed with a CAS on the size
+ * counter before the element is linked into a {@link ConcurrentLinkedQueue}.
+ * When the queue is full the policy decides what happens to the new element:
+ * DROP discards it, BLOCK parks the producer for up to the block timeout before
+ * dropping, and SAMPLE starts keeping only every Nth element once the queue is
+ * half full, dropping the rest (and everything once full).
+ *
+ * The consumer is expected to be a single drain thread. It is unparked as soon
+ * as a full batch is waiting.
+ */
+public class BoundedEventQueue<E> {
+
+    public enum OverflowPolicy {
+        DROP, BLOCK, SAMPLE
+    }
+
+    public enum Outcome {
+        ACCEPTED, DROPPED, SAMPLED_OUT
+    }
+
+    private final ConcurrentLinkedQueue<E> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final int capacity;
+    private final int wakeThreshold;
+    private final OverflowPolicy policy;
+    private final long blockTimeoutNanos;
+    private final int sampleEvery;
+
+    private volatile Thread consumer;
+
+    public BoundedEventQueue(int capacity, int wakeThreshold, OverflowPolicy policy, long blockTimeoutMs, int sampleEvery) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.wakeThreshold = Math.max(1, Math.min(wakeThreshold, capacity));
+        this.policy = policy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    /**
+     * Registers the thread that drains the queue, so producers can wake it.
+     */
+    public void setConsumer(Thread consumer) {
+        this.consumer = consumer;
+    }
+
+    public Outcome offer(E element) {
+        if (policy == OverflowPolicy.SAMPLE && size.get() >= capacity / 2
+                && sampleCounter.incrementAndGet() % sampleEvery != 0) {
+            return Outcome.SAMPLED_OUT;
+        }
+
+        if (!tryReserve()) {
+            if (policy != OverflowPolicy.BLOCK || !awaitReserve()) {
+                return Outcome.DROPPED;
+            }
+        }
+        queue.offer(element);
+        if (size.get() >= wakeThreshold) {
+            wakeConsumer();
+        }
+        return Outcome.ACCEPTED;
+    }
+
+    /**
+     * Moves up to {@code max} elements into {@code target}; returns how many were moved.
+     */
+    public int drainTo(List<E> target, int max) {
+        int drained = 0;
+        E element;
+        while (drained < max && (element = queue.poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        if (drained > 0) {
+            size.addAndGet(-drained);
+        }
+        return drained;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private boolean awaitReserve() {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        wakeConsumer();
+        while (System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (tryReserve()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void wakeConsumer() {
+        Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
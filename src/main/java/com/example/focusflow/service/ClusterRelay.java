@@ -0,0 +1,173 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.service.ClusterTransport.ClusterMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Relays session broadcasts to peer nodes when a {@link ClusterTransport} is configured.
+ *
+ * This node declares interest in a session code while it has STOMP subscribers
+ * to the session's topics or owns its running timer, so peers only forward
+ * updates that someone here can use. Without a transport every method is a no-op.
+ */
+@Service
+public class ClusterRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRelay.class);
+
+    public static final String TIMER_HOLDER = "timer";
+
+    @Value("${focusflow.cluster.node-id:}")
+    private String nodeId;
+
+    @Autowired(required = false)
+    private ClusterTransport transport;
+
+    // Session code -> local holders of interest (STOMP subscriptions, running timer)
+    private final Map<String, Set<String>> interest = new ConcurrentHashMap<>();
+    // STOMP session id -> subscription id -> session code
+    private final Map<String, Map<String, String>> subscriptions = new ConcurrentHashMap<>();
+
+    private volatile Consumer<ClusterMessage> receiver = message -> { };
+
+    @PostConstruct
+    public void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        if (transport != null) {
+            transport.join(nodeId, message -> receiver.accept(message));
+            log.debug("Cluster fan-out enabled for node {}", nodeId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (transport != null) {
+            transport.leave(nodeId);
+        }
+    }
+
+    public boolean isEnabled() {
+        return transport != null;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setReceiver(Consumer<ClusterMessage> receiver) {
+        this.receiver = receiver;
+    }
+
+    public void publishState(String sessionCode, Map<String, Object> fields) {
+        if (transport != null) {
+            transport.send(nodeId, new ClusterMessage(ClusterMessage.Kind.STATE, sessionCode, null, fields,
+                    holdsTimer(sessionCode)));
+        }
+    }
+
+    public void publishEvent(String sessionCode, String event, Object payload) {
+        if (transport != null) {
+            transport.send(nodeId, new ClusterMessage(ClusterMessage.Kind.EVENT, sessionCode, event, payload, false));
+        }
+    }
+
+    public boolean holdsTimer(String sessionCode) {
+        Set<String> holders = interest.get(sessionCode);
+        return holders != null && holders.contains(TIMER_HOLDER);
+    }
+
+    public void addInterest(String sessionCode, String holder) {
+        if (transport == null) {
+            return;
+        }
+        interest.compute(sessionCode, (code, holders) -> {
+            if (holders == null) {
+                holders = ConcurrentHashMap.newKeySet();
+                transport.setInterest(nodeId, code, true);
+            }
+            holders.add(holder);
+            return holders;
+        });
+    }
+
+    public void removeInterest(String sessionCode, String holder) {
+        if (transport == null) {
+            return;
+        }
+        interest.computeIfPresent(sessionCode, (code, holders) -> {
+            holders.remove(holder);
+            if (holders.isEmpty()) {
+                transport.setInterest(nodeId, code, false);
+                return null;
+            }
+            return holders;
+        });
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String sessionCode = sessionCodeOf(accessor.getDestination());
+        if (transport == null || sessionCode == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        subscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+            .put(accessor.getSubscriptionId(), sessionCode);
+        addInterest(sessionCode, accessor.getSessionId() + "/" + accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> sessionSubscriptions = accessor.getSessionId() != null ? subscriptions.get(accessor.getSessionId()) : null;
+        if (sessionSubscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String sessionCode = sessionSubscriptions.remove(accessor.getSubscriptionId());
+        if (sessionCode != null) {
+            removeInterest(sessionCode, accessor.getSessionId() + "/" + accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> sessionSubscriptions = subscriptions.remove(event.getSessionId());
+        if (sessionSubscriptions != null) {
+            sessionSubscriptions.forEach((subscriptionId, sessionCode) ->
+                removeInterest(sessionCode, event.getSessionId() + "/" + subscriptionId));
+        }
+    }
+
+    /**
+     * Session code from /topic/session/{code} or /topic/session/{code}/{event}.
+     */
+    static String sessionCodeOf(String destination) {
+        if (destination == null || !destination.startsWith(SessionBroadcaster.TOPIC_PREFIX)) {
+            return null;
+        }
+        String rest = destination.substring(SessionBroadcaster.TOPIC_PREFIX.length());
+        int slash = rest.indexOf('/');
+        String sessionCode = slash >= 0 ? rest.substring(0, slash) : rest;
+        return sessionCode.isEmpty() ? null : sessionCode;
+    }
+}
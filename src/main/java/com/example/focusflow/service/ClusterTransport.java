@@ -0,0 +1,32 @@
+package com.example.focusflow.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries session broadcasts between application nodes.
+ *
+ * Nodes declare which session codes they are interested in; a message for a
+ * session is only delivered to the other nodes that currently hold interest in
+ * its code.
+ */
+public interface ClusterTransport {
+
+    void join(String nodeId, Consumer<ClusterMessage> receiver);
+
+    void leave(String nodeId);
+
+    void setInterest(String nodeId, String sessionCode, boolean interested);
+
+    void send(String fromNodeId, ClusterMessage message);
+
+    /**
+     * A broadcast from one node. For STATE messages, timerHeld says whether the
+     * sender clocks the session's running timer after the change.
+     */
+    record ClusterMessage(Kind kind, String sessionCode, String event, Object payload, boolean timerHeld) {
+
+        public enum Kind {
+            STATE, EVENT
+        }
+    }
+}
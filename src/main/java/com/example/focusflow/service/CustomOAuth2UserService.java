@@ -17,6 +17,9 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private IdentityCache identityCache;
+
     @Override
     public OAuth2User loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
         OAuth2User oauth2User = super.loadUser(userRequest);
@@ -52,7 +55,8 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             user.setProfilePictureUrl(profilePictureUrl);
         }
         
-        userRepository.save(user);
+        // Later requests resolve the caller from the cache, with the profile as of this login
+        identityCache.put(userRepository.save(user));
         
         return oauth2User;
     }
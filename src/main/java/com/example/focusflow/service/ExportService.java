@@ -0,0 +1,115 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.ActivityLogRepository;
+import com.example.focusflow.repository.ArchivedSessionRepository;
+import com.example.focusflow.repository.SessionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's sessions or activity log as newline-delimited JSON.
+ *
+ * Rows are read through repository streams over read-only projections, so
+ * nothing accumulates in the persistence context, and each row is serialized
+ * straight to the output stream. Memory use stays flat regardless of how many
+ * rows the account has. Hot and archived sessions are read as two streams and
+ * merged newest first, the same order the history page uses.
+ */
+@Service
+public class ExportService {
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private ArchivedSessionRepository archivedSessionRepository;
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportSessions(User user, OutputStream out) throws IOException {
+        // Archived and hot sessions overlap in created_at, so neither stream can simply follow the other
+        try (Stream<SessionRepository.SessionSummary> hot = sessionRepository.streamByCreatorId(user.getId());
+             Stream<SessionRepository.SessionSummary> archived = archivedSessionRepository.streamByCreatorId(user.getId())) {
+            return writeNdjson(new MergedIterator<>(hot.iterator(), archived.iterator(), SessionService.HISTORY_ORDER), out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportActivity(User user, OutputStream out) throws IOException {
+        try (Stream<ActivityLogRepository.ActivityLogEntry> rows = activityLogRepository.streamByUserId(user.getId())) {
+            return writeNdjson(rows.iterator(), out);
+        }
+    }
+
+    private long writeNdjson(Iterator<?> rows, OutputStream out) throws IOException {
+        long count = 0;
+        // The caller owns the output stream; it may wrap it (gzip) and must close it
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            // One value per line: no separator between root values, newline after each
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                objectMapper.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Merges two iterators that are each sorted by the same order, holding one row of each.
+     */
+    private static final class MergedIterator<T> implements Iterator<T> {
+        private final Iterator<T> first;
+        private final Iterator<T> second;
+        private final Comparator<? super T> order;
+        private T nextFirst;
+        private T nextSecond;
+
+        MergedIterator(Iterator<T> first, Iterator<T> second, Comparator<? super T> order) {
+            this.first = first;
+            this.second = second;
+            this.order = order;
+            nextFirst = first.hasNext() ? first.next() : null;
+            nextSecond = second.hasNext() ? second.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextFirst != null || nextSecond != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T row;
+            if (nextSecond == null || (nextFirst != null && order.compare(nextFirst, nextSecond) <= 0)) {
+                row = nextFirst;
+                nextFirst = first.hasNext() ? first.next() : null;
+            } else {
+                row = nextSecond;
+                nextSecond = second.hasNext() ? second.next() : null;
+            }
+            return row;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.FocusRollup;
+import com.example.focusflow.repository.FocusRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily focus totals per user and across all users.
+ *
+ * Progress credited by {@link UserStatsService} is added to the bucket for the
+ * day it happened, for the user and for the global row. Increments accumulate
+ * in memory and are applied to focus_daily_rollups as relative updates on a
+ * fixed interval. Range queries read at most one row per day and fold them into
+ * weekly or monthly buckets, so their cost does not depend on how many sessions
+ * a user has.
+ */
+@Service
+public class FocusRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(FocusRollupService.class);
+
+    private static final String UPDATE_SQL =
+        "UPDATE focus_daily_rollups SET focus_minutes = focus_minutes + ?, completed_cycles = completed_cycles + ?, " +
+        "completed_sessions = completed_sessions + ? WHERE user_id = ? AND bucket_date = ?";
+    private static final String INSERT_SQL =
+        "INSERT INTO focus_daily_rollups (user_id, bucket_date, focus_minutes, completed_cycles, completed_sessions) " +
+        "VALUES (?, ?, ?, ?, ?)";
+    private static final int MAX_RANGE_DAYS = 3660;
+
+    public enum Granularity {
+        DAY, WEEK, MONTH
+    }
+
+    public record FocusBucket(LocalDate start, double focusMinutes, long completedCycles, long completedSessions) {
+    }
+
+    @Autowired
+    private FocusRollupRepository focusRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<BucketKey, Increment> pending = new ConcurrentHashMap<>();
+
+    public void record(Long userId, LocalDate day, double focusMinutes, long cycles, long sessions) {
+        add(new BucketKey(userId, day), focusMinutes, cycles, sessions);
+        add(new BucketKey(FocusRollup.GLOBAL_USER_ID, day), focusMinutes, cycles, sessions);
+    }
+
+    /**
+     * Buckets covering [from, to], oldest first. Days without focus are omitted.
+     */
+    public List<FocusBucket> getRange(Long userId, LocalDate from, LocalDate to, Granularity granularity) {
+        if (to.isBefore(from) || from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Range must be at most " + MAX_RANGE_DAYS + " days with from <= to");
+        }
+
+        Map<LocalDate, double[]> buckets = new TreeMap<>();
+        for (FocusRollup row : focusRollupRepository.findByUserIdAndBucketDateBetweenOrderByBucketDate(userId, from, to)) {
+            fold(buckets, bucketStart(row.getBucketDate(), granularity),
+                    row.getFocusMinutes(), row.getCompletedCycles(), row.getCompletedSessions());
+        }
+        // Include increments not flushed yet
+        pending.forEach((key, increment) -> {
+            if (key.userId().equals(userId) && !key.day().isBefore(from) && !key.day().isAfter(to)) {
+                synchronized (increment) {
+                    fold(buckets, bucketStart(key.day(), granularity),
+                            increment.focusMinutes, increment.cycles, increment.sessions);
+                }
+            }
+        });
+
+        List<FocusBucket> result = new ArrayList<>(buckets.size());
+        buckets.forEach((start, totals) -> result.add(new FocusBucket(start, totals[0], (long) totals[1], (long) totals[2])));
+        return result;
+    }
+
+    public static Granularity parseGranularity(String value) {
+        return Granularity.valueOf(value.toUpperCase(Locale.ROOT));
+    }
+
+    @Scheduled(fixedDelayString = "${focusflow.rollups.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<BucketKey> keys = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Iterator<Map.Entry<BucketKey, Increment>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<BucketKey, Increment> entry = it.next();
+            // Detach first; increments arriving meanwhile start a new entry
+            it.remove();
+            Increment increment = entry.getValue();
+            synchronized (increment) {
+                increment.detached = true;
+                keys.add(entry.getKey());
+                updates.add(new Object[] {
+                    increment.focusMinutes, increment.cycles, increment.sessions,
+                    entry.getKey().userId(), Date.valueOf(entry.getKey().day())
+                });
+            }
+        }
+
+        int[] counts;
+        try {
+            // All or nothing, so a failed flush can simply be retried
+            counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, updates));
+        } catch (Exception e) {
+            for (int i = 0; i < keys.size(); i++) {
+                restore(keys.get(i), updates.get(i));
+            }
+            log.warn("Error flushing focus rollups", e);
+            return;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                insert(keys.get(i), updates.get(i));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void insert(BucketKey key, Object[] row) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, key.userId(), Date.valueOf(key.day()), row[0], row[1], row[2]);
+        } catch (Exception e) {
+            // Another node may have created the bucket first; apply ours on top of it
+            try {
+                if (jdbcTemplate.update(UPDATE_SQL, row) == 1) {
+                    return;
+                }
+            } catch (Exception retry) {
+                log.warn("Error writing focus rollup", retry);
+            }
+            restore(key, row);
+        }
+    }
+
+    private void restore(BucketKey key, Object[] row) {
+        add(key, (double) row[0], (long) row[1], (long) row[2]);
+    }
+
+    private void add(BucketKey key, double focusMinutes, long cycles, long sessions) {
+        while (true) {
+            Increment increment = pending.computeIfAbsent(key, k -> new Increment());
+            synchronized (increment) {
+                if (!increment.detached) {
+                    increment.focusMinutes += focusMinutes;
+                    increment.cycles += cycles;
+                    increment.sessions += sessions;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void fold(Map<LocalDate, double[]> buckets, LocalDate start, double focusMinutes, long cycles, long sessions) {
+        double[] totals = buckets.computeIfAbsent(start, day -> new double[3]);
+        totals[0] += focusMinutes;
+        totals[1] += cycles;
+        totals[2] += sessions;
+    }
+
+    private static LocalDate bucketStart(LocalDate day, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private record BucketKey(Long userId, LocalDate day) {
+    }
+
+    private static final class Increment {
+        private double focusMinutes;
+        private long cycles;
+        private long sessions;
+        private boolean detached;
+    }
+}
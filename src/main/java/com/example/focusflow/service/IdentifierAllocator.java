@@ -0,0 +1,174 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.IdentifierSequence;
+import com.example.focusflow.repository.IdentifierSequenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.SplittableRandom;
+
+/**
+ * Hands out unique session codes and anonymous usernames without probing the database.
+ *
+ * Each identifier kind draws from a counter. Nodes reserve disjoint blocks of the
+ * counter from the identifier_sequences table, so the database is hit once per
+ * block rather than once per identifier. Counter values are scrambled with a
+ * keyed Feistel permutation, which keeps identifiers unique while making them
+ * look random and hard to enumerate.
+ *
+ * The key must never change once identifiers have been issued: a different key
+ * maps the remaining counter values onto codes and names already in use.
+ * Callers still retry on a unique constraint violation, which also covers the
+ * random session codes issued before this allocator. Anonymous usernames carry
+ * a number of at least 1000, above the 0-999 suffixes of those older names.
+ */
+@Service
+public class IdentifierAllocator {
+
+    private static final String CODE_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int CODE_LENGTH = 6;
+    private static final long CODE_SPACE = 2_176_782_336L; // 36^6
+
+    private static final String[] ADJECTIVES = {"Quick", "Smart", "Focus", "Zen", "Calm", "Swift", "Bright", "Cool"};
+    private static final String[] NOUNS = {"Student", "Learner", "Scholar", "Mind", "Brain", "Thinker", "Focus", "User"};
+
+    private static final int FEISTEL_ROUNDS = 4;
+    // Older random usernames ended in 0-999
+    private static final long LEGACY_USERNAME_SUFFIXES = 1000;
+
+    @Value("${focusflow.ids.block-size:1000}")
+    private int blockSize;
+
+    @Value("${focusflow.ids.key:focusflow}")
+    private String key;
+
+    @Autowired
+    private IdentifierSequenceRepository sequenceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Block sessionCodes = new Block("session_code");
+    private final Block usernames = new Block("anonymous_username");
+    private int[] roundKeys;
+
+    @PostConstruct
+    public void init() {
+        SplittableRandom random = new SplittableRandom(key.hashCode());
+        roundKeys = new int[FEISTEL_ROUNDS];
+        for (int i = 0; i < FEISTEL_ROUNDS; i++) {
+            roundKeys[i] = random.nextInt();
+        }
+    }
+
+    public String nextSessionCode() {
+        long index = sessionCodes.next();
+        if (index >= CODE_SPACE) {
+            throw new IllegalStateException("Session code space exhausted");
+        }
+        return encodeSessionCode(index);
+    }
+
+    public String nextAnonymousUsername() {
+        long index = usernames.next();
+        if (index > 0xFFFFFFFFL) {
+            throw new IllegalStateException("Anonymous username space exhausted");
+        }
+        return encodeUsername(index);
+    }
+
+    /**
+     * Maps a counter value in [0, 36^6) to a distinct six-character code.
+     */
+    String encodeSessionCode(long index) {
+        // Cycle-walk the 32-bit permutation until it lands inside the code space
+        long value = permute(index);
+        while (value >= CODE_SPACE) {
+            value = permute(value);
+        }
+
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = CODE_ALPHABET.charAt((int) (value % CODE_ALPHABET.length()));
+            value /= CODE_ALPHABET.length();
+        }
+        return new String(code);
+    }
+
+    /**
+     * Maps a counter value to a distinct name like "CalmThinker48213". The number
+     * grows with the counter, so the namespace never runs out, and starts above
+     * the legacy range.
+     */
+    String encodeUsername(long index) {
+        long value = permute(index);
+        String adjective = ADJECTIVES[(int) (value % ADJECTIVES.length)];
+        value /= ADJECTIVES.length;
+        String noun = NOUNS[(int) (value % NOUNS.length)];
+        value /= NOUNS.length;
+        return adjective + noun + (value + LEGACY_USERNAME_SUFFIXES);
+    }
+
+    // Balanced Feistel network over 32 bits; a bijection for any key
+    private long permute(long value) {
+        int left = (int) (value >>> 16) & 0xFFFF;
+        int right = (int) value & 0xFFFF;
+        for (int roundKey : roundKeys) {
+            int next = left ^ round(right, roundKey);
+            left = right;
+            right = next;
+        }
+        return ((long) left << 16) | right;
+    }
+
+    private static int round(int half, int roundKey) {
+        int h = (half ^ roundKey) * 0x9E3779B1;
+        h ^= h >>> 15;
+        h *= 0x85EBCA77;
+        h ^= h >>> 13;
+        return h & 0xFFFF;
+    }
+
+    private long reserve(String name) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    IdentifierSequence sequence = sequenceRepository.findForUpdate(name)
+                        .orElseGet(() -> new IdentifierSequence(name, 0));
+                    long start = sequence.getNextValue();
+                    sequence.setNextValue(start + blockSize);
+                    sequenceRepository.saveAndFlush(sequence);
+                    return start;
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the sequence row first
+                if (attempt >= 2) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private final class Block {
+        private final String name;
+        private long next;
+        private long end;
+
+        Block(String name) {
+            this.name = name;
+        }
+
+        synchronized long next() {
+            if (next >= end) {
+                next = reserve(name);
+                end = next + blockSize;
+            }
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Resolves the caller of a request to their user without touching the database.
+ *
+ * Users are cached as immutable {@link Identity} summaries keyed by id, with a
+ * secondary index from OAuth subject and email. Entries are populated at login
+ * by {@link CustomOAuth2UserService}, which also replaces them whenever the
+ * profile changes, and otherwise on first use. Requests without a principal
+ * resolve to the demo user. Entries expire after a TTL so changes made by other
+ * nodes are picked up eventually.
+ *
+ * Callers without a user (including demo requests before the demo user exists)
+ * are remembered as unknown for a short TTL, so repeated lookups do not query
+ * the database. Caching a user clears the matching unknown entries, and
+ * {@link #resolve} never trusts them before creating a user.
+ */
+@Service
+public class IdentityCache {
+
+    private static final Logger log = LoggerFactory.getLogger(IdentityCache.class);
+
+    public static final String DEMO_EMAIL = "demo@focusflow.app";
+
+    @Value("${focusflow.identity.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${focusflow.identity.cache.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    @Value("${focusflow.identity.cache.unknown-ttl-seconds:10}")
+    private long unknownTtlSeconds;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Long> idByKey = new ConcurrentHashMap<>();
+    // Subject or email key -> when it stops being known to have no user
+    private final Map<String, Long> unknownUntilNanos = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Read-only summary of a user, enough to act on their behalf.
+     */
+    public record Identity(Long id, String username, String email, String googleId, String firstName,
+                           String lastName, String profilePictureUrl, boolean anonymous, LocalDateTime createdAt) {
+
+        static Identity of(User user) {
+            return new Identity(user.getId(), user.getUsername(), user.getEmail(), user.getGoogleId(),
+                    user.getFirstName(), user.getLastName(), user.getProfilePictureUrl(), user.isAnonymous(),
+                    user.getCreatedAt());
+        }
+
+        /**
+         * Detached user with this identity, usable as a reference from new entities.
+         */
+        public User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setUsername(username);
+            user.setEmail(email);
+            user.setGoogleId(googleId);
+            user.setFirstName(firstName);
+            user.setLastName(lastName);
+            user.setProfilePictureUrl(profilePictureUrl);
+            user.setAnonymous(anonymous);
+            user.setCreatedAt(createdAt);
+            return user;
+        }
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("focusflow.identity.cache.requests", hits, AtomicLong::get)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("focusflow.identity.cache.requests", misses, AtomicLong::get)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder("focusflow.identity.cache.size", byId, Map::size)
+            .register(meterRegistry);
+    }
+
+    /**
+     * The caller's identity if they have a user, without creating one.
+     */
+    public Optional<Identity> find(OAuth2User principal) {
+        return find(principal, true);
+    }
+
+    private Optional<Identity> find(OAuth2User principal, boolean trustUnknown) {
+        if (principal == null) {
+            return lookup(emailKey(DEMO_EMAIL), () -> userRepository.findByEmail(DEMO_EMAIL), trustUnknown);
+        }
+        String googleId = attribute(principal, "sub");
+        String email = attribute(principal, "email");
+        Optional<Identity> identity = googleId != null
+            ? lookup(subjectKey(googleId), () -> userRepository.findByGoogleId(googleId), trustUnknown)
+            : Optional.empty();
+        return identity.isPresent() || email == null
+            ? identity
+            : lookup(emailKey(email), () -> userRepository.findByEmail(email), trustUnknown);
+    }
+
+    /**
+     * The caller's identity, creating their user (or the demo user) on first use.
+     */
+    public Identity resolve(OAuth2User principal) {
+        // Known callers are served from the maps without taking the lock
+        Optional<Identity> existing = find(principal);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        synchronized (this) {
+            // Another request, or another node, may have created the user meanwhile
+            existing = find(principal, false);
+            return existing.isPresent() ? existing.get() : create(principal);
+        }
+    }
+
+    private Identity create(OAuth2User principal) {
+        User user = new User();
+        if (principal == null) {
+            user.setEmail(DEMO_EMAIL);
+            user.setUsername("Demo User");
+            user.setGoogleId("demo-user-id");
+            user.setFirstName("Demo");
+            user.setLastName("User");
+            user.setAnonymous(true);
+            log.debug("Creating demo user");
+        } else {
+            String email = attribute(principal, "email");
+            user.setEmail(email);
+            user.setUsername(email);
+            user.setGoogleId(attribute(principal, "sub"));
+            user.setFirstName(attribute(principal, "given_name"));
+            user.setLastName(attribute(principal, "family_name"));
+            user.setProfilePictureUrl(attribute(principal, "picture"));
+            user.setAnonymous(false);
+        }
+        return put(userRepository.save(user));
+    }
+
+    public Optional<Identity> findById(Long id) {
+        Entry entry = byId.get(id);
+        if (entry != null && !entry.isExpired()) {
+            hits.incrementAndGet();
+            return Optional.of(entry.identity);
+        }
+        misses.incrementAndGet();
+        return userRepository.findById(id).map(this::put);
+    }
+
+    /**
+     * Identities of the given users that exist, loading all cache misses in one query.
+     */
+    public Map<Long, Identity> findAllById(Collection<Long> ids) {
+        Map<Long, Identity> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Entry entry = byId.get(id);
+            if (entry != null && !entry.isExpired()) {
+                hits.incrementAndGet();
+                found.put(id, entry.identity);
+            } else {
+                misses.incrementAndGet();
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (User user : userRepository.findAllById(missing)) {
+                found.put(user.getId(), put(user));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Caches the user as saved; replaces any entry left from before a profile change.
+     */
+    public Identity put(User user) {
+        evict(user.getId());
+        Identity identity = Identity.of(user);
+        byId.put(user.getId(), new Entry(identity, System.nanoTime() + ttlSeconds * 1_000_000_000L));
+        if (identity.googleId() != null) {
+            idByKey.put(subjectKey(identity.googleId()), user.getId());
+            unknownUntilNanos.remove(subjectKey(identity.googleId()));
+        }
+        if (identity.email() != null) {
+            idByKey.put(emailKey(identity.email()), user.getId());
+            unknownUntilNanos.remove(emailKey(identity.email()));
+        }
+        if (byId.size() > maxSize) {
+            trim();
+        }
+        return identity;
+    }
+
+    public void evict(Long userId) {
+        Entry removed = byId.remove(userId);
+        if (removed != null) {
+            if (removed.identity.googleId() != null) {
+                idByKey.remove(subjectKey(removed.identity.googleId()), userId);
+            }
+            if (removed.identity.email() != null) {
+                idByKey.remove(emailKey(removed.identity.email()), userId);
+            }
+        }
+    }
+
+    private Optional<Identity> lookup(String key, Supplier<Optional<User>> loader, boolean trustUnknown) {
+        Long id = idByKey.get(key);
+        Entry entry = id != null ? byId.get(id) : null;
+        if (entry != null && !entry.isExpired()) {
+            hits.incrementAndGet();
+            return Optional.of(entry.identity);
+        }
+        Long unknownUntil = unknownUntilNanos.get(key);
+        if (trustUnknown && unknownUntil != null && unknownUntil - System.nanoTime() > 0) {
+            hits.incrementAndGet();
+            return Optional.empty();
+        }
+        misses.incrementAndGet();
+        Optional<Identity> identity = loader.get().map(this::put);
+        if (identity.isEmpty()) {
+            rememberUnknown(key);
+        }
+        return identity;
+    }
+
+    private void rememberUnknown(String key) {
+        long now = System.nanoTime();
+        unknownUntilNanos.put(key, now + unknownTtlSeconds * 1_000_000_000L);
+        if (unknownUntilNanos.size() > maxSize) {
+            unknownUntilNanos.values().removeIf(until -> until - now <= 0);
+            if (unknownUntilNanos.size() > maxSize) {
+                unknownUntilNanos.clear();
+            }
+        }
+    }
+
+    private void trim() {
+        // Expired entries go first, then whatever the iteration order yields
+        removeWhile(true);
+        if (byId.size() > maxSize) {
+            removeWhile(false);
+        }
+    }
+
+    private void removeWhile(boolean expiredOnly) {
+        Iterator<Map.Entry<Long, Entry>> it = byId.entrySet().iterator();
+        while (it.hasNext() && byId.size() > maxSize) {
+            Map.Entry<Long, Entry> next = it.next();
+            if (!expiredOnly || next.getValue().isExpired()) {
+                evict(next.getKey());
+            }
+        }
+    }
+
+    private static String attribute(OAuth2User principal, String name) {
+        Object value = principal.getAttributes().get(name);
+        return value != null ? value.toString() : null;
+    }
+
+    private static String subjectKey(String googleId) {
+        return "sub:" + googleId;
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email;
+    }
+
+    private static final class Entry {
+        private final Identity identity;
+        private final long expiresAtNanos;
+
+        Entry(Identity identity, long expiresAtNanos) {
+            this.identity = identity;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
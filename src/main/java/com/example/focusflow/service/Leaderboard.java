@@ -0,0 +1,89 @@
+package com.example.focusflow.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Concurrently updatable ranking of users by score, highest first.
+ *
+ * Scores live in a hash map and ranked entries in a skip list ordered by score
+ * (descending) then user id. Updating a user is O(log n): the new entry is
+ * inserted before the old one is removed, under the map's per-key lock, so
+ * updates to the same user are serialized while different users proceed in
+ * parallel. Readers never block; the top k are read in O(k) by walking the head
+ * of the skip list, skipping any entry that no longer matches the user's
+ * current score. A user whose update is in flight at that instant may be left
+ * out of that one read.
+ */
+public class Leaderboard {
+
+    public record Entry(long userId, double score) {
+    }
+
+    private static final Comparator<Entry> RANKING = Comparator
+        .comparingDouble(Entry::score).reversed()
+        .thenComparingLong(Entry::userId);
+
+    private final Map<Long, Double> scores = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> ranked = new ConcurrentSkipListSet<>(RANKING);
+
+    /**
+     * Adds to the user's score and returns the new score.
+     */
+    public double add(long userId, double delta) {
+        return scores.compute(userId, (id, old) -> {
+            double updated = (old != null ? old : 0) + delta;
+            replace(id, old, updated);
+            return updated;
+        });
+    }
+
+    public void set(long userId, double score) {
+        scores.compute(userId, (id, old) -> {
+            replace(id, old, score);
+            return score;
+        });
+    }
+
+    public double score(long userId) {
+        Double score = scores.get(userId);
+        return score != null ? score : 0;
+    }
+
+    public List<Entry> top(int k) {
+        List<Entry> result = new ArrayList<>(Math.min(k, scores.size()));
+        Set<Long> seen = new HashSet<>();
+        for (Entry entry : ranked) {
+            if (result.size() >= k) {
+                break;
+            }
+            Double current = scores.get(entry.userId());
+            // Skip an entry whose replacement is already in place
+            if (current != null && current == entry.score() && seen.add(entry.userId())) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return scores.size();
+    }
+
+    private void replace(long userId, Double old, double updated) {
+        if (old != null && old == updated) {
+            return;
+        }
+        ranked.add(new Entry(userId, updated));
+        if (old != null) {
+            ranked.remove(new Entry(userId, old));
+        }
+    }
+}
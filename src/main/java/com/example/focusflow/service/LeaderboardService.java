@@ -0,0 +1,320 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.LeaderboardEntry;
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.repository.ArchivedSessionRepository;
+import com.example.focusflow.repository.LeaderboardEntryRepository;
+import com.example.focusflow.repository.SessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Top users by focus minutes: all time, this week, and within a shared session.
+ *
+ * Boards are {@link Leaderboard}s fed by the focus credited in
+ * {@link UserStatsService}. Session boards credit everyone who joined the
+ * session with the minutes it made progress, and are dropped once the session
+ * has been idle for a while. On startup the global and weekly boards are
+ * rebuilt from session history; until that finishes, reads fall back to the
+ * last checkpoint of the top entries, which is rewritten periodically. Focus
+ * credited while the rebuild runs is collected and replayed into the rebuilt
+ * boards before they replace the live ones. Display names come from
+ * {@link IdentityCache}.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    public static final String GLOBAL = "global";
+    public static final String WEEKLY = "weekly";
+
+    private static final String DELETE_SQL = "DELETE FROM leaderboard_entries WHERE board = ?";
+    private static final String INSERT_SQL =
+        "INSERT INTO leaderboard_entries (board, rank_position, user_id, score, checkpointed_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Value("${focusflow.leaderboard.checkpoint-size:100}")
+    private int checkpointSize;
+
+    @Value("${focusflow.leaderboard.room-idle-minutes:120}")
+    private long roomIdleMinutes;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private ArchivedSessionRepository archivedSessionRepository;
+
+    @Autowired
+    private LeaderboardEntryRepository leaderboardEntryRepository;
+
+    @Autowired
+    private IdentityCache identityCache;
+
+    @Autowired
+    private SessionStateStore sessionStateStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+
+    private volatile Leaderboard global = new Leaderboard();
+    private volatile WeeklyBoard weekly = new WeeklyBoard(currentWeek(), new Leaderboard());
+    private volatile boolean ready;
+
+    // Held shared while crediting the boards and exclusively while replacing them
+    private final ReadWriteLock boardsLock = new ReentrantReadWriteLock();
+    // Credits made while a rebuild runs, null otherwise; the reference is guarded by boardsLock
+    private Queue<Credit> pendingCredits;
+
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    public record Ranking(int rank, Long userId, String username, double focusMinutes) {
+    }
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        Leaderboard rebuiltGlobal = new Leaderboard();
+        LocalDate week = currentWeek();
+        Leaderboard rebuiltWeekly = new Leaderboard();
+        // Session id -> cycles the rebuild counted for it
+        Map<Long, Integer> countedCycles = new HashMap<>();
+
+        // Collect credits from here on, then write pending timer progress so the history read includes
+        // everything credited before this point
+        boardsLock.writeLock().lock();
+        try {
+            pendingCredits = new ConcurrentLinkedQueue<>();
+        } finally {
+            boardsLock.writeLock().unlock();
+        }
+        try {
+            sessionStateStore.flush();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<SessionRepository.SessionProgress> sessions = Stream.concat(
+                        sessionRepository.streamAllProgress(), archivedSessionRepository.streamAllProgress())) {
+                    sessions.forEach(session -> {
+                        int cycles = UserStatsService.completedCycles(session.getCurrentCycle(), session.getTotalCycles(),
+                                session.getStatus(), session.getIsBreak());
+                        countedCycles.put(session.getId(), cycles);
+                        if (cycles == 0) {
+                            return;
+                        }
+                        double minutes = cycles * session.getDurationMinutes();
+                        rebuiltGlobal.add(session.getCreatorId(), minutes);
+                        if (session.getCreatedAt() != null && !session.getCreatedAt().toLocalDate().isBefore(week)) {
+                            rebuiltWeekly.add(session.getCreatorId(), minutes);
+                        }
+                    });
+                }
+            });
+
+            boardsLock.writeLock().lock();
+            try {
+                for (Credit credit : pendingCredits) {
+                    // Only the part of each credit beyond what the rebuild read for that session is missing
+                    int counted = countedCycles.getOrDefault(credit.sessionId(), 0);
+                    int missedCycles = Math.max(0, credit.cyclesAfter() - Math.max(credit.cyclesBefore(), counted));
+                    if (missedCycles > 0) {
+                        rebuiltGlobal.add(credit.userId(), missedCycles * credit.durationMinutes());
+                        rebuiltWeekly.add(credit.userId(), missedCycles * credit.durationMinutes());
+                    }
+                }
+                global = rebuiltGlobal;
+                weekly = new WeeklyBoard(week, rebuiltWeekly);
+                ready = true;
+            } finally {
+                boardsLock.writeLock().unlock();
+            }
+        } finally {
+            boardsLock.writeLock().lock();
+            try {
+                pendingCredits = null;
+            } finally {
+                boardsLock.writeLock().unlock();
+            }
+        }
+        log.debug("Leaderboards rebuilt for {} users in {} ms", rebuiltGlobal.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Credits the cycles the session completed since cyclesBefore to the user and
+     * to everyone sharing the session.
+     */
+    public void record(Session session, Long userId, int cyclesBefore, int cyclesAfter) {
+        if (cyclesAfter <= cyclesBefore) {
+            return;
+        }
+        double focusMinutes = (cyclesAfter - cyclesBefore) * session.getDurationMinutes();
+        boardsLock.readLock().lock();
+        try {
+            global.add(userId, focusMinutes);
+            currentWeekly().board().add(userId, focusMinutes);
+            if (pendingCredits != null) {
+                pendingCredits.add(new Credit(session.getId(), userId, cyclesBefore, cyclesAfter,
+                        session.getDurationMinutes()));
+            }
+        } finally {
+            boardsLock.readLock().unlock();
+        }
+
+        String sessionCode = session.getSessionCode();
+        if (sessionCode != null) {
+            Room room = rooms.computeIfAbsent(sessionCode, code -> new Room());
+            room.members.add(userId);
+            room.touch();
+            room.members.forEach(member -> room.board.add(member, focusMinutes));
+        }
+    }
+
+    public void joinRoom(String sessionCode, Long userId) {
+        Room room = rooms.computeIfAbsent(sessionCode, code -> new Room());
+        room.members.add(userId);
+        room.touch();
+    }
+
+    public List<Ranking> topGlobal(int limit) {
+        return ready ? rank(global.top(limit)) : fromCheckpoint(GLOBAL, limit);
+    }
+
+    public List<Ranking> topWeekly(int limit) {
+        return ready ? rank(currentWeekly().board().top(limit)) : fromCheckpoint(WEEKLY, limit);
+    }
+
+    public List<Ranking> topInSession(String sessionCode, int limit) {
+        Room room = rooms.get(sessionCode);
+        return room != null ? rank(room.board.top(limit)) : new ArrayList<>();
+    }
+
+    @Scheduled(fixedDelayString = "${focusflow.leaderboard.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        if (!ready) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<String, List<Leaderboard.Entry>> boards = new LinkedHashMap<>();
+        boards.put(GLOBAL, global.top(checkpointSize));
+        boards.put(WEEKLY, currentWeekly().board().top(checkpointSize));
+        try {
+            transactionTemplate.executeWithoutResult(status -> boards.forEach((board, entries) -> {
+                jdbcTemplate.update(DELETE_SQL, board);
+                List<Object[]> rows = new ArrayList<>(entries.size());
+                for (int i = 0; i < entries.size(); i++) {
+                    rows.add(new Object[] { board, i + 1, entries.get(i).userId(), entries.get(i).score(), now });
+                }
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            }));
+        } catch (Exception e) {
+            log.warn("Error checkpointing leaderboards", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${focusflow.leaderboard.room-cleanup-interval-ms:60000}")
+    public void dropIdleRooms() {
+        long cutoff = System.nanoTime() - TimeUnit.MINUTES.toNanos(roomIdleMinutes);
+        rooms.values().removeIf(room -> room.lastActiveNanos - cutoff < 0);
+    }
+
+    private WeeklyBoard currentWeekly() {
+        WeeklyBoard current = weekly;
+        LocalDate week = currentWeek();
+        if (current.week().equals(week)) {
+            return current;
+        }
+        synchronized (this) {
+            // A new week starts from zero
+            if (!weekly.week().equals(week)) {
+                weekly = new WeeklyBoard(week, new Leaderboard());
+            }
+            return weekly;
+        }
+    }
+
+    private List<Ranking> fromCheckpoint(String board, int limit) {
+        List<Leaderboard.Entry> entries = new ArrayList<>();
+        for (LeaderboardEntry row : leaderboardEntryRepository.findByBoardOrderByRank(board)) {
+            if (entries.size() >= limit) {
+                break;
+            }
+            entries.add(new Leaderboard.Entry(row.getUserId(), row.getScore()));
+        }
+        return rank(entries);
+    }
+
+    private List<Ranking> rank(List<Leaderboard.Entry> entries) {
+        Map<Long, IdentityCache.Identity> identities =
+            identityCache.findAllById(entries.stream().map(Leaderboard.Entry::userId).toList());
+        List<Ranking> rankings = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Leaderboard.Entry entry = entries.get(i);
+            IdentityCache.Identity identity = identities.get(entry.userId());
+            rankings.add(new Ranking(i + 1, entry.userId(), identity != null ? identity.username() : null, entry.score()));
+        }
+        return rankings;
+    }
+
+    private static LocalDate currentWeek() {
+        return LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private record WeeklyBoard(LocalDate week, Leaderboard board) {
+    }
+
+    // Progress credited to one session by one update
+    private record Credit(Long sessionId, Long userId, int cyclesBefore, int cyclesAfter, double durationMinutes) {
+    }
+
+    private static final class Room {
+        private final Set<Long> members = ConcurrentHashMap.newKeySet();
+        private final Leaderboard board = new Leaderboard();
+        private volatile long lastActiveNanos = System.nanoTime();
+
+        void touch() {
+            lastActiveNanos = System.nanoTime();
+        }
+    }
+}
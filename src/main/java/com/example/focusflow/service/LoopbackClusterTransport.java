@@ -0,0 +1,64 @@
+package com.example.focusflow.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM cluster transport. Every application context in the same JVM that uses
+ * the same cluster name joins one shared hub, so several nodes can be exercised
+ * together without any network setup.
+ */
+public class LoopbackClusterTransport implements ClusterTransport {
+
+    private static final Map<String, Hub> HUBS = new ConcurrentHashMap<>();
+
+    private final Hub hub;
+
+    public LoopbackClusterTransport(String clusterName) {
+        this.hub = HUBS.computeIfAbsent(clusterName, name -> new Hub());
+    }
+
+    @Override
+    public void join(String nodeId, Consumer<ClusterMessage> receiver) {
+        hub.nodes.put(nodeId, receiver);
+    }
+
+    @Override
+    public void leave(String nodeId) {
+        hub.nodes.remove(nodeId);
+        hub.interest.values().forEach(nodes -> nodes.remove(nodeId));
+    }
+
+    @Override
+    public void setInterest(String nodeId, String sessionCode, boolean interested) {
+        if (interested) {
+            hub.interest.computeIfAbsent(sessionCode, code -> ConcurrentHashMap.newKeySet()).add(nodeId);
+        } else {
+            hub.interest.computeIfPresent(sessionCode, (code, nodes) -> {
+                nodes.remove(nodeId);
+                return nodes.isEmpty() ? null : nodes;
+            });
+        }
+    }
+
+    @Override
+    public void send(String fromNodeId, ClusterMessage message) {
+        Set<String> nodes = hub.interest.get(message.sessionCode());
+        if (nodes == null) {
+            return;
+        }
+        for (String nodeId : nodes) {
+            Consumer<ClusterMessage> receiver = hub.nodes.get(nodeId);
+            if (receiver != null && !nodeId.equals(fromNodeId)) {
+                receiver.accept(message);
+            }
+        }
+    }
+
+    private static final class Hub {
+        private final Map<String, Consumer<ClusterMessage>> nodes = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> interest = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.focusflow.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory record of who is connected to each session on this node.
+ *
+ * A participant is a STOMP connection subscribed to /topic/session/{code}. They
+ * join on subscribe, leave on unsubscribe or disconnect, and are expired when
+ * no heartbeat has been seen within the timeout. Joins and leaves are queued
+ * and published as one presence message per session per flush interval. A
+ * connection expired while still open joins again on its next heartbeat. All
+ * state lives in concurrent maps and queues; nothing touches the database.
+ *
+ * Each node publishes presence only to its own subscribers and relays its
+ * local count to its peers, which add it to theirs. Peers repeat their counts
+ * on every expiry sweep; a count not repeated within the timeout is dropped,
+ * so a node that goes away stops being counted.
+ */
+@Service
+public class PresenceRegistry {
+
+    public static final String USERNAME_HEADER = "x-username";
+    public static final String PEER_COUNT_EVENT = "presence-peer";
+
+    @Value("${focusflow.presence.timeout-seconds:90}")
+    private long timeoutSeconds;
+
+    @Autowired
+    private SessionBroadcaster sessionBroadcaster;
+
+    @Autowired
+    private ClusterRelay clusterRelay;
+
+    // Session code -> STOMP session id -> participant
+    private final Map<String, Map<String, Participant>> rooms = new ConcurrentHashMap<>();
+    // STOMP session id -> subscription id -> subscription
+    private final Map<String, Map<String, Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Change>> pendingChanges = new ConcurrentHashMap<>();
+    // Session code -> peer node id -> participants connected to that peer
+    private final Map<String, Map<String, PeerCount>> peerCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Participants connected to the session across the cluster.
+     */
+    public int getParticipantCount(String sessionCode) {
+        return getLocalParticipantCount(sessionCode) + getPeerParticipantCount(sessionCode);
+    }
+
+    public int getLocalParticipantCount(String sessionCode) {
+        Map<String, Participant> room = rooms.get(sessionCode);
+        return room != null ? room.size() : 0;
+    }
+
+    private int getPeerParticipantCount(String sessionCode) {
+        Map<String, PeerCount> peers = peerCounts.get(sessionCode);
+        if (peers == null) {
+            return 0;
+        }
+        long cutoff = System.nanoTime() - TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        int count = 0;
+        for (PeerCount peer : peers.values()) {
+            if (peer.receivedNanos() - cutoff >= 0) {
+                count += peer.count();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Usernames of the participants connected to this node.
+     */
+    public List<String> getParticipants(String sessionCode) {
+        Map<String, Participant> room = rooms.get(sessionCode);
+        List<String> usernames = new ArrayList<>();
+        if (room != null) {
+            room.values().forEach(participant -> usernames.add(participant.username));
+        }
+        return usernames;
+    }
+
+    public void join(String sessionCode, String connectionId, String username) {
+        Participant participant = new Participant(username != null && !username.isBlank() ? username : "Anonymous");
+        Participant[] previous = new Participant[1];
+        // Insert under the room's map entry so a concurrent leave cannot drop the room underneath us
+        rooms.compute(sessionCode, (code, room) -> {
+            if (room == null) {
+                room = new ConcurrentHashMap<>();
+            }
+            previous[0] = room.putIfAbsent(connectionId, participant);
+            return room;
+        });
+        if (previous[0] == null) {
+            queueChange(sessionCode, new Change(true, participant.username));
+        } else {
+            previous[0].touch();
+        }
+    }
+
+    public void leave(String sessionCode, String connectionId) {
+        Participant[] removed = new Participant[1];
+        rooms.computeIfPresent(sessionCode, (code, room) -> {
+            removed[0] = room.remove(connectionId);
+            return room.isEmpty() ? null : room;
+        });
+        if (removed[0] != null) {
+            queueChange(sessionCode, new Change(false, removed[0].username));
+        }
+    }
+
+    /**
+     * Marks the connection as alive in every session it is subscribed to, and
+     * joins it again to any it was expired from.
+     */
+    public void heartbeat(String connectionId) {
+        Map<String, Subscription> connectionSubscriptions = subscriptions.get(connectionId);
+        if (connectionSubscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : connectionSubscriptions.values()) {
+            Map<String, Participant> room = rooms.get(subscription.sessionCode());
+            Participant participant = room != null ? room.get(connectionId) : null;
+            if (participant != null) {
+                participant.touch();
+            } else {
+                join(subscription.sessionCode(), connectionId, subscription.username());
+            }
+        }
+    }
+
+    /**
+     * Takes in the local count a peer relayed and tells this node's subscribers
+     * about the new total and whoever joined or left over there.
+     */
+    public void onPeerPresence(String sessionCode, Object payload) {
+        if (!(payload instanceof Map<?, ?> update) || !(update.get("node") instanceof String node)
+                || !(update.get("count") instanceof Number count)) {
+            return;
+        }
+        int before = getParticipantCount(sessionCode);
+        if (count.intValue() > 0) {
+            peerCounts.computeIfAbsent(sessionCode, code -> new ConcurrentHashMap<>())
+                .put(node, new PeerCount(count.intValue(), System.nanoTime()));
+        } else {
+            peerCounts.computeIfPresent(sessionCode, (code, peers) -> {
+                peers.remove(node);
+                return peers.isEmpty() ? null : peers;
+            });
+        }
+
+        Collection<?> joined = update.get("joined") instanceof Collection<?> joinedNames ? joinedNames : List.of();
+        Collection<?> left = update.get("left") instanceof Collection<?> leftNames ? leftNames : List.of();
+        int total = getParticipantCount(sessionCode);
+        if (joined.isEmpty() && left.isEmpty() && total == before) {
+            return;
+        }
+        Map<String, Object> presence = new HashMap<>();
+        presence.put("count", total);
+        presence.put("joined", joined);
+        presence.put("left", left);
+        sessionBroadcaster.sendLocalEvent(sessionCode, "presence", presence);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        String connectionId = accessor.getSessionId();
+        if (destination == null || connectionId == null || accessor.getSubscriptionId() == null
+                || !destination.startsWith(SessionBroadcaster.TOPIC_PREFIX)) {
+            return;
+        }
+        // Only the main state topic counts as presence, not the per-event sub-topics
+        String sessionCode = destination.substring(SessionBroadcaster.TOPIC_PREFIX.length());
+        if (sessionCode.isEmpty() || sessionCode.contains("/")) {
+            return;
+        }
+        String username = accessor.getFirstNativeHeader(USERNAME_HEADER);
+        subscriptions.computeIfAbsent(connectionId, id -> new ConcurrentHashMap<>())
+            .put(accessor.getSubscriptionId(), new Subscription(sessionCode, username));
+        join(sessionCode, connectionId, username);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Subscription> connectionSubscriptions = accessor.getSessionId() != null ? subscriptions.get(accessor.getSessionId()) : null;
+        if (connectionSubscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Subscription subscription = connectionSubscriptions.remove(accessor.getSubscriptionId());
+        if (subscription != null) {
+            leave(subscription.sessionCode(), accessor.getSessionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Subscription> connectionSubscriptions = subscriptions.remove(event.getSessionId());
+        if (connectionSubscriptions != null) {
+            connectionSubscriptions.values().forEach(subscription -> leave(subscription.sessionCode(), event.getSessionId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${focusflow.presence.expiry-interval-ms:15000}")
+    public void expireSilentParticipants() {
+        long cutoff = System.nanoTime() - TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        // The subscription stays, so the connection rejoins if it turns out to be alive
+        rooms.forEach((sessionCode, room) -> room.forEach((connectionId, participant) -> {
+            if (participant.lastSeenNanos - cutoff < 0) {
+                leave(sessionCode, connectionId);
+            }
+        }));
+
+        // Drop counts of peers that stopped repeating them, and repeat ours
+        peerCounts.forEach((sessionCode, peers) -> {
+            peers.values().removeIf(peer -> peer.receivedNanos() - cutoff < 0);
+            peerCounts.computeIfPresent(sessionCode, (code, remaining) -> remaining.isEmpty() ? null : remaining);
+        });
+        if (clusterRelay.isEnabled()) {
+            rooms.keySet().forEach(sessionCode -> clusterRelay.publishEvent(sessionCode, PEER_COUNT_EVENT,
+                peerUpdate(sessionCode, List.of(), List.of())));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${focusflow.presence.broadcast-interval-ms:1000}")
+    public void publishChanges() {
+        for (Map.Entry<String, Queue<Change>> entry : pendingChanges.entrySet()) {
+            Queue<Change> queue = entry.getValue();
+            // Net out joins and leaves of the same user within the batch
+            Set<String> joined = new LinkedHashSet<>();
+            Set<String> left = new LinkedHashSet<>();
+            Change change;
+            while ((change = queue.poll()) != null) {
+                if (change.joined()) {
+                    if (!left.remove(change.username())) {
+                        joined.add(change.username());
+                    }
+                } else if (!joined.remove(change.username())) {
+                    left.add(change.username());
+                }
+            }
+            pendingChanges.computeIfPresent(entry.getKey(), (code, pending) -> pending.isEmpty() ? null : pending);
+            if (joined.isEmpty() && left.isEmpty()) {
+                continue;
+            }
+
+            Map<String, Object> presence = new HashMap<>();
+            presence.put("count", getParticipantCount(entry.getKey()));
+            presence.put("joined", joined);
+            presence.put("left", left);
+            sessionBroadcaster.sendLocalEvent(entry.getKey(), "presence", presence);
+            clusterRelay.publishEvent(entry.getKey(), PEER_COUNT_EVENT, peerUpdate(entry.getKey(), joined, left));
+        }
+    }
+
+    private Map<String, Object> peerUpdate(String sessionCode, Collection<String> joined, Collection<String> left) {
+        Map<String, Object> update = new HashMap<>();
+        update.put("node", clusterRelay.getNodeId());
+        update.put("count", getLocalParticipantCount(sessionCode));
+        update.put("joined", joined);
+        update.put("left", left);
+        return update;
+    }
+
+    private void queueChange(String sessionCode, Change change) {
+        pendingChanges.compute(sessionCode, (code, queue) -> {
+            if (queue == null) {
+                queue = new ConcurrentLinkedQueue<>();
+            }
+            queue.add(change);
+            return queue;
+        });
+    }
+
+    private record Change(boolean joined, String username) {
+    }
+
+    private record Subscription(String sessionCode, String username) {
+    }
+
+    private record PeerCount(int count, long receivedNanos) {
+    }
+
+    private static final class Participant {
+        private final String username;
+        private volatile long lastSeenNanos = System.nanoTime();
+
+        Participant(String username) {
+            this.username = username;
+        }
+
+        void touch() {
+            lastSeenNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.ArchivedSession;
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.repository.ArchivedSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cold storage for finished sessions.
+ *
+ * Sessions that have completed or ended early, and were created more than the
+ * configured number of days ago, are moved from sessions to archived_sessions
+ * in bounded batches. Age is taken from created_at rather than completed_at,
+ * which sessions ended early may not have, so candidates come straight off the
+ * status and created_at index.
+ * Each batch copies the rows, detaches any activity events still pointing at
+ * them and deletes them from the hot table in one transaction, so a session
+ * is always in exactly one of the two tables. This keeps the hot table and its
+ * indexes sized to recent sessions, and takes archived codes out of its unique
+ * index. Lookups that miss the hot table fall through to the archive and get a
+ * read-only session back, with its creator resolved through the identity cache.
+ */
+@Service
+public class SessionArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionArchive.class);
+
+    private static final String COLUMNS =
+        "id, session_code, creator_id, duration_minutes, break_minutes, long_break_minutes, total_cycles, " +
+        "current_cycle, status, created_at, started_at, completed_at, current_time_left, is_running, is_break, " +
+        "timer_started_at";
+    private static final String CANDIDATES_SQL =
+        "SELECT id FROM sessions WHERE status IN ('COMPLETED', 'ENDED_EARLY') AND created_at < ? ORDER BY id LIMIT ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM sessions";
+
+    @Value("${focusflow.archive.age-days:180}")
+    private int ageDays;
+
+    @Value("${focusflow.archive.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    private ArchivedSessionRepository archivedSessionRepository;
+
+    @Autowired
+    private IdentityCache identityCache;
+
+    @Autowired
+    private SessionCache sessionCache;
+
+    @Autowired
+    private SessionStateStore sessionStateStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${focusflow.archive.cron:0 0 4 * * *}")
+    public void archiveFinishedSessions() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(ageDays));
+        long archived = 0;
+        try {
+            while (true) {
+                List<Long> ids = jdbcTemplate.queryForList(CANDIDATES_SQL, Long.class, cutoff, batchSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                archive(ids);
+                archived += ids.size();
+            }
+        } catch (Exception e) {
+            log.warn("Error archiving sessions", e);
+        }
+        if (archived > 0 && log.isDebugEnabled()) {
+            Long remaining = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+            log.debug("Archived {} sessions, {} remain in the hot table", archived, remaining);
+        }
+    }
+
+    public Optional<Session> findById(Long id) {
+        return archivedSessionRepository.findById(id).map(this::toSession);
+    }
+
+    public Optional<Session> findBySessionCode(String sessionCode) {
+        return archivedSessionRepository.findFirstBySessionCodeOrderByArchivedAtDesc(sessionCode).map(this::toSession);
+    }
+
+    private void archive(List<Long> ids) {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] insertArgs = new Object[ids.size() + 1];
+        insertArgs[0] = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < ids.size(); i++) {
+            insertArgs[i + 1] = ids.get(i);
+        }
+        Object[] idArgs = ids.toArray();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO archived_sessions (" + COLUMNS + ", archived_at) SELECT " + COLUMNS
+                    + ", ? FROM sessions WHERE id IN (" + placeholders + ")", insertArgs);
+            // Raw events are normally gone by now (see activity log retention); keep any stragglers
+            jdbcTemplate.update("UPDATE activity_logs SET session_id = NULL WHERE session_id IN (" + placeholders + ")", idArgs);
+            jdbcTemplate.update("DELETE FROM sessions WHERE id IN (" + placeholders + ")", idArgs);
+        });
+
+        for (Long id : ids) {
+            sessionCache.invalidate(id);
+            sessionStateStore.evict(id);
+        }
+    }
+
+    private Session toSession(ArchivedSession archived) {
+        return archived.toSession(identityCache.findById(archived.getCreatorId())
+            .map(IdentityCache.Identity::toUser)
+            .orElse(null));
+    }
+}
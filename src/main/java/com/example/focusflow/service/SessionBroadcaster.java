@@ -0,0 +1,254 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes session state to /topic/session/{code} as sequenced deltas.
+ *
+ * Each broadcast carries only the fields that changed since the previous one
+ * for that session, plus a per-session sequence number. A client that sees a
+ * gap in the sequence fetches a full snapshot instead.
+ *
+ * State broadcasts are coalesced per topic: the first one opens a short window,
+ * later ones within it replace the pending state, and a single delta is sent
+ * when the window closes. Discrete events are never merged and go out in order.
+ * Topics of finished sessions are dropped at once; any other topic is dropped
+ * after going idle, so abandoned sessions do not hold their state forever.
+ *
+ * Broadcasts originating on this node are also handed to the {@link ClusterRelay};
+ * those arriving from peers are published locally only.
+ */
+@Service
+public class SessionBroadcaster {
+
+    public static final String TOPIC_PREFIX = "/topic/session/";
+
+    @Value("${focusflow.broadcast.coalesce-window-ms:50}")
+    private long coalesceWindowMs;
+
+    @Value("${focusflow.broadcast.topic-idle-seconds:600}")
+    private long topicIdleSeconds;
+
+    @Value("${focusflow.broadcast.topic-sweep-ms:60000}")
+    private long topicSweepMs;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ClusterRelay clusterRelay;
+
+    private final Map<String, TopicState> topics = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private Counter stateReceived;
+    private Counter stateSent;
+    private Counter eventsReceived;
+    private Counter eventsSent;
+    private Timer flushDuration;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-broadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+        stateReceived = Counter.builder("focusflow.broadcast.received").tag("kind", "state").register(meterRegistry);
+        stateSent = Counter.builder("focusflow.broadcast.sent").tag("kind", "state").register(meterRegistry);
+        eventsReceived = Counter.builder("focusflow.broadcast.received").tag("kind", "event").register(meterRegistry);
+        eventsSent = Counter.builder("focusflow.broadcast.sent").tag("kind", "event").register(meterRegistry);
+        flushDuration = Timer.builder("focusflow.broadcast.flush").register(meterRegistry);
+        if (topicSweepMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::expireIdleTopics, topicSweepMs, topicSweepMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        topics.values().forEach(this::flush);
+    }
+
+    public void broadcast(Session session) {
+        // Capture the fields now; the entity may keep changing while the window is open
+        Map<String, Object> fields = fields(session);
+        broadcastLocal(fields);
+        clusterRelay.publishState(session.getSessionCode(), fields);
+    }
+
+    /**
+     * Publishes state fields to subscribers on this node only.
+     */
+    public void broadcastLocal(Map<String, Object> fields) {
+        stateReceived.increment();
+        String sessionCode = (String) fields.get("sessionCode");
+        boolean finished = isFinished(fields.get("status"));
+
+        while (true) {
+            TopicState topic = topics.computeIfAbsent(sessionCode, TopicState::new);
+            synchronized (topic) {
+                if (topic.expired) {
+                    // Lost a race with the idle sweep; the next lookup creates a fresh topic
+                    continue;
+                }
+                topic.pendingFields = fields;
+                topic.touchedAtNanos = System.nanoTime();
+                if (finished || coalesceWindowMs <= 0) {
+                    flush(topic);
+                } else if (!topic.flushScheduled) {
+                    topic.flushScheduled = true;
+                    scheduler.schedule(() -> flush(topic), coalesceWindowMs, TimeUnit.MILLISECONDS);
+                }
+            }
+
+            if (finished) {
+                topics.remove(sessionCode, topic);
+            }
+            return;
+        }
+    }
+
+    /**
+     * Drops topics with nothing pending that have not been broadcast to for the idle period.
+     * A session that becomes active again starts over with a full message.
+     */
+    void expireIdleTopics() {
+        long idleNanos = TimeUnit.SECONDS.toNanos(topicIdleSeconds);
+        long now = System.nanoTime();
+        for (TopicState topic : topics.values()) {
+            synchronized (topic) {
+                if (!topic.flushScheduled && topic.pendingFields == null && now - topic.touchedAtNanos >= idleNanos) {
+                    topic.expired = true;
+                    topics.remove(topic.sessionCode, topic);
+                }
+            }
+        }
+    }
+
+    int getTopicCount() {
+        return topics.size();
+    }
+
+    /**
+     * Sends a discrete event such as user-joined to /topic/session/{code}/{event}.
+     */
+    public void sendEvent(String sessionCode, String event, Object payload) {
+        sendLocalEvent(sessionCode, event, payload);
+        clusterRelay.publishEvent(sessionCode, event, payload);
+    }
+
+    public void sendLocalEvent(String sessionCode, String event, Object payload) {
+        eventsReceived.increment();
+        eventsSent.increment();
+        messagingTemplate.convertAndSend(TOPIC_PREFIX + sessionCode + "/" + event, payload);
+    }
+
+    private void flush(TopicState topic) {
+        synchronized (topic) {
+            Map<String, Object> fields = topic.pendingFields;
+            topic.pendingFields = null;
+            topic.flushScheduled = false;
+            if (fields == null) {
+                return;
+            }
+
+            Map<String, Object> message = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                if (topic.lastFields == null || !Objects.equals(topic.lastFields.get(field.getKey()), field.getValue())) {
+                    message.put(field.getKey(), field.getValue());
+                }
+            }
+            if (message.isEmpty()) {
+                return;
+            }
+
+            message.put("seq", ++topic.sequence);
+            message.put("full", topic.lastFields == null);
+            topic.lastFields = fields;
+            stateSent.increment();
+            // Covers serialization and the hand-off to the broker, not delivery to each subscriber
+            flushDuration.record(() -> messagingTemplate.convertAndSend(TOPIC_PREFIX + topic.sessionCode, message));
+        }
+    }
+
+    /**
+     * Full state of the session tagged with the latest sequence number sent for it.
+     */
+    public Map<String, Object> snapshot(Session session) {
+        Map<String, Object> snapshot = fields(session);
+        TopicState topic = topics.get(session.getSessionCode());
+        long sequence;
+        if (topic == null) {
+            sequence = 0;
+        } else {
+            synchronized (topic) {
+                sequence = topic.sequence;
+            }
+        }
+        snapshot.put("seq", sequence);
+        snapshot.put("full", true);
+        return snapshot;
+    }
+
+    // Status goes out as its name, the same type a peer's relayed fields carry, so deltas compare equal
+    static Map<String, Object> fields(Session session) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("id", session.getId());
+        fields.put("sessionCode", session.getSessionCode());
+        fields.put("durationMinutes", session.getDurationMinutes());
+        fields.put("breakMinutes", session.getBreakMinutes());
+        fields.put("longBreakMinutes", session.getLongBreakMinutes());
+        fields.put("totalCycles", session.getTotalCycles());
+        fields.put("currentCycle", session.getCurrentCycle());
+        fields.put("status", session.getStatus() != null ? session.getStatus().name() : null);
+        fields.put("createdAt", session.getCreatedAt());
+        fields.put("startedAt", session.getStartedAt());
+        fields.put("completedAt", session.getCompletedAt());
+        fields.put("currentTimeLeft", session.getCurrentTimeLeft());
+        fields.put("isRunning", session.getIsRunning());
+        fields.put("isBreak", session.getIsBreak());
+        fields.put("timerStartedAt", session.getTimerStartedAt());
+        return fields;
+    }
+
+    private static boolean isFinished(Object status) {
+        String name = String.valueOf(status);
+        return Session.SessionStatus.COMPLETED.name().equals(name) || Session.SessionStatus.ENDED_EARLY.name().equals(name);
+    }
+
+    private static final class TopicState {
+        private final String sessionCode;
+        private long sequence;
+        private Map<String, Object> lastFields;
+        private Map<String, Object> pendingFields;
+        private boolean flushScheduled;
+        private boolean expired;
+        private long touchedAtNanos = System.nanoTime();
+
+        TopicState(String sessionCode) {
+            this.sessionCode = sessionCode;
+        }
+    }
+}
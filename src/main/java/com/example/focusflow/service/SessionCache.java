@@ -0,0 +1,221 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of sessions keyed by id, with a secondary index by session code.
+ *
+ * Entries expire after a fixed TTL. Expired entries are dropped when a lookup
+ * finds them and by a periodic sweep, so sessions nobody reads again do not
+ * stay in memory; the cache is also trimmed back to its maximum size on
+ * insert, dropping expired entries first. Evictions are counted by cause.
+ * Every mutating path in {@link SessionService} refreshes or invalidates the
+ * entry it touched.
+ *
+ * The cache keeps its own copy of each session and hands out copies, so a
+ * caller mutating what it got back (including a change that later loses its
+ * version check) is never visible to other readers.
+ */
+@Service
+public class SessionCache {
+
+    @Value("${focusflow.session.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${focusflow.session.cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Long> idByCode = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("focusflow.session.cache.gets", hits, AtomicLong::get)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("focusflow.session.cache.gets", misses, AtomicLong::get)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        FunctionCounter.builder("focusflow.session.cache.evictions", evictions, AtomicLong::get)
+            .tag("cause", "size")
+            .register(meterRegistry);
+        FunctionCounter.builder("focusflow.session.cache.evictions", expirations, AtomicLong::get)
+            .tag("cause", "expired")
+            .register(meterRegistry);
+        Gauge.builder("focusflow.session.cache.size", byId, Map::size)
+            .register(meterRegistry);
+    }
+
+    public Optional<Session> getById(Long id, Function<Long, Optional<Session>> loader) {
+        Entry entry = byId.get(id);
+        if (entry != null && !entry.isExpired()) {
+            hits.incrementAndGet();
+            return Optional.of(entry.session.copy());
+        }
+        misses.incrementAndGet();
+        if (entry != null) {
+            expire(id, entry);
+        }
+        Optional<Session> loaded = loader.apply(id);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public Optional<Session> getByCode(String sessionCode, Function<String, Optional<Session>> loader) {
+        Long id = idByCode.get(sessionCode);
+        Entry entry = id != null ? byId.get(id) : null;
+        if (entry != null && !entry.isExpired()) {
+            hits.incrementAndGet();
+            return Optional.of(entry.session.copy());
+        }
+        misses.incrementAndGet();
+        if (entry != null) {
+            expire(id, entry);
+        }
+        Optional<Session> loaded = loader.apply(sessionCode);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public void put(Session session) {
+        // Only cache sessions that can be serialized without an open persistence context
+        if (!Hibernate.isInitialized(session.getCreator())) {
+            invalidate(session.getId());
+            return;
+        }
+        Entry fresh = new Entry(session.copy(), System.nanoTime() + ttlSeconds * 1_000_000_000L);
+        Entry[] replaced = new Entry[1];
+        Entry current = byId.compute(session.getId(), (id, existing) -> {
+            // Writers finishing out of order must not put an older version back over a newer one
+            if (existing != null && isNewer(existing.session, fresh.session)) {
+                return existing;
+            }
+            replaced[0] = existing;
+            return fresh;
+        });
+        if (current != fresh) {
+            return;
+        }
+        Entry previous = replaced[0];
+        if (previous != null && !previous.session.getSessionCode().equals(session.getSessionCode())) {
+            idByCode.remove(previous.session.getSessionCode(), session.getId());
+        }
+        idByCode.put(session.getSessionCode(), session.getId());
+        if (byId.size() > maxSize) {
+            trim();
+        }
+    }
+
+    public void invalidate(Long id) {
+        Entry removed = byId.remove(id);
+        if (removed != null) {
+            idByCode.remove(removed.session.getSessionCode(), id);
+        }
+    }
+
+    public void clear() {
+        byId.clear();
+        idByCode.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${focusflow.session.cache.sweep-interval-ms:30000}")
+    public void sweepExpired() {
+        byId.forEach((id, entry) -> {
+            if (entry.isExpired()) {
+                expire(id, entry);
+            }
+        });
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private static boolean isNewer(Session a, Session b) {
+        return a.getVersion() != null && b.getVersion() != null && a.getVersion() > b.getVersion();
+    }
+
+    private void expire(Long id, Entry entry) {
+        // Only the entry that was seen expiring; a fresh one put meanwhile stays
+        if (byId.remove(id, entry)) {
+            idByCode.remove(entry.session.getSessionCode(), id);
+            expirations.incrementAndGet();
+        }
+    }
+
+    private void trim() {
+        // Expired entries go first, then whatever the iteration order yields
+        removeWhile(true);
+        if (byId.size() > maxSize) {
+            removeWhile(false);
+        }
+    }
+
+    private void removeWhile(boolean expiredOnly) {
+        Iterator<Map.Entry<Long, Entry>> it = byId.entrySet().iterator();
+        while (it.hasNext() && byId.size() > maxSize) {
+            Map.Entry<Long, Entry> next = it.next();
+            if (next.getValue().isExpired()) {
+                expire(next.getKey(), next.getValue());
+            } else if (!expiredOnly) {
+                it.remove();
+                idByCode.remove(next.getValue().session.getSessionCode(), next.getKey());
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Session session;
+        private final long expiresAtNanos;
+
+        Entry(Session session, long expiresAtNanos) {
+            this.session = session;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
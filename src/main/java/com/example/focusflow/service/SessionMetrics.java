@@ -0,0 +1,121 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Meters for session operations and lifecycle.
+ *
+ * Each operation in {@link SessionService} is timed in two phases under
+ * focusflow.session.operation: "db" for loading and writing the session, and
+ * "broadcast" for handing the result to subscribers, tagged with the outcome.
+ * Status transitions are counted by the status entered, and the number of
+ * sessions currently in each status is read from the sessions table on a
+ * fixed delay so scrapes never hit the database. Tags are limited to
+ * operation names and statuses; session ids and codes are never used.
+ */
+@Service
+public class SessionMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionMetrics.class);
+
+    private static final String STATUS_COUNTS_SQL = "SELECT status, COUNT(*) FROM sessions GROUP BY status";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Session.SessionStatus, Counter> transitions = new EnumMap<>(Session.SessionStatus.class);
+    private final Map<Session.SessionStatus, AtomicLong> statusCounts = new EnumMap<>(Session.SessionStatus.class);
+
+    @PostConstruct
+    public void registerMetrics() {
+        for (Session.SessionStatus status : Session.SessionStatus.values()) {
+            transitions.put(status, Counter.builder("focusflow.session.transitions")
+                .tag("status", status.name())
+                .register(meterRegistry));
+            AtomicLong count = new AtomicLong();
+            statusCounts.put(status, count);
+            Gauge.builder("focusflow.sessions", count, AtomicLong::get)
+                .tag("status", status.name())
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Runs the database part of an operation under its timer.
+     */
+    public <T> T timeDb(String operation, Supplier<T> work) {
+        return time(operation, "db", work);
+    }
+
+    /**
+     * Runs the broadcast part of an operation under its timer.
+     */
+    public void timeBroadcast(String operation, Runnable work) {
+        time(operation, "broadcast", () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public void transitioned(Session.SessionStatus status) {
+        if (status != null) {
+            transitions.get(status).increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${focusflow.metrics.status-refresh-ms:30000}", initialDelay = 0)
+    public void refreshStatusCounts() {
+        try {
+            Map<Session.SessionStatus, Long> counts = new EnumMap<>(Session.SessionStatus.class);
+            jdbcTemplate.query(STATUS_COUNTS_SQL, rs -> {
+                counts.put(Session.SessionStatus.valueOf(rs.getString(1)), rs.getLong(2));
+            });
+            statusCounts.forEach((status, gauge) -> gauge.set(counts.getOrDefault(status, 0L)));
+        } catch (Exception e) {
+            log.warn("Error refreshing session status counts", e);
+        }
+    }
+
+    private <T> T time(String operation, String phase, Supplier<T> work) {
+        long started = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = work.get();
+            outcome = "success";
+            return result;
+        } finally {
+            timer(operation, phase, outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String operation, String phase, String outcome) {
+        return timers.computeIfAbsent(operation + "|" + phase + "|" + outcome, key -> Timer.builder("focusflow.session.operation")
+            .tag("operation", operation)
+            .tag("phase", phase)
+            .tag("outcome", outcome)
+            .register(meterRegistry));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.repository.SessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closes sessions left running after everyone went away.
+ *
+ * A session counts as abandoned when it is ACTIVE with its timer running, the
+ * timer was started longer ago than the configured number of minutes, and no
+ * timer engine on this node is tracking it. Candidates are read in bounded
+ * batches along the (status, timer_started_at) index and closed with one
+ * guarded UPDATE per batch: COMPLETED if all cycles are done (as
+ * {@link SessionService#checkAndUpdateCompletion} would), ENDED_EARLY
+ * otherwise. The guard and the version bump make concurrent runs on several
+ * nodes, and sessions resumed in the meantime, safe. Closed sessions are then
+ * handed back to {@link SessionService} to broadcast their final state.
+ */
+@Service
+public class SessionReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionReaper.class);
+
+    private static final String CANDIDATES_SQL =
+        "SELECT id, version, current_cycle, total_cycles, is_break, timer_started_at FROM sessions " +
+        "WHERE status = 'ACTIVE' AND is_running = TRUE AND timer_started_at < ? " +
+        "AND (timer_started_at > ? OR (timer_started_at = ? AND id > ?)) " +
+        "ORDER BY timer_started_at, id LIMIT ?";
+    private static final String REAP_SQL =
+        "UPDATE sessions SET " +
+        "completed_at = CASE WHEN current_cycle >= total_cycles THEN ? ELSE completed_at END, " +
+        "is_break = CASE WHEN current_cycle >= total_cycles THEN FALSE ELSE is_break END, " +
+        "status = CASE WHEN current_cycle >= total_cycles THEN 'COMPLETED' ELSE 'ENDED_EARLY' END, " +
+        "current_cycle = CASE WHEN current_cycle >= total_cycles THEN total_cycles ELSE current_cycle END, " +
+        "is_running = FALSE, version = COALESCE(version, 0) + 1 " +
+        "WHERE status = 'ACTIVE' AND is_running = TRUE AND timer_started_at < ? AND id IN (%s)";
+    private static final Timestamp SCAN_START = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0));
+
+    @Value("${focusflow.reaper.stale-minutes:180}")
+    private long staleMinutes;
+
+    @Value("${focusflow.reaper.batch-size:200}")
+    private int batchSize;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionStateStore sessionStateStore;
+
+    @Autowired
+    private SessionCache sessionCache;
+
+    @Autowired
+    private SessionTimerEngine timerEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter reaped;
+    private DistributionSummary reapedPerRun;
+    private Timer runDuration;
+
+    @PostConstruct
+    public void init() {
+        reaped = Counter.builder("focusflow.session.reaper.reaped").register(meterRegistry);
+        reapedPerRun = DistributionSummary.builder("focusflow.session.reaper.reaped.per.run").register(meterRegistry);
+        runDuration = Timer.builder("focusflow.session.reaper.duration").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${focusflow.reaper.interval-ms:300000}")
+    public void reapAbandonedSessions() {
+        long started = System.nanoTime();
+        int total = 0;
+        try {
+            // The stale check must see timer starts still waiting in the write-behind store
+            sessionStateStore.flush();
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusMinutes(staleMinutes));
+            Timestamp afterStartedAt = SCAN_START;
+            long afterId = Long.MIN_VALUE;
+            while (true) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(CANDIDATES_SQL,
+                        cutoff, afterStartedAt, afterStartedAt, afterId, batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                total += reap(rows, cutoff);
+                Map<String, Object> last = rows.get(rows.size() - 1);
+                afterStartedAt = (Timestamp) last.get("timer_started_at");
+                afterId = ((Number) last.get("id")).longValue();
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Error reaping abandoned sessions", e);
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            runDuration.record(elapsed, TimeUnit.NANOSECONDS);
+            reapedPerRun.record(total);
+        }
+        if (total > 0) {
+            log.debug("Reaped {} abandoned sessions", total);
+        }
+    }
+
+    private int reap(List<Map<String, Object>> rows, Timestamp cutoff) {
+        Map<Long, Candidate> candidates = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            Long id = ((Number) row.get("id")).longValue();
+            // A timer running on this node means someone is still there
+            if (timerEngine.remainingSeconds(id) != null) {
+                continue;
+            }
+            Number version = (Number) row.get("version");
+            int cycles = UserStatsService.completedCycles(((Number) row.get("current_cycle")).intValue(),
+                    ((Number) row.get("total_cycles")).intValue(), Session.SessionStatus.ACTIVE,
+                    (Boolean) row.get("is_break"));
+            candidates.put(id, new Candidate(version != null ? version.longValue() : 0, cycles));
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        List<Object> args = new ArrayList<>(candidates.size() + 2);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.add(cutoff);
+        args.addAll(candidates.keySet());
+        String sql = String.format(REAP_SQL, String.join(", ", Collections.nCopies(candidates.size(), "?")));
+        if (jdbcTemplate.update(sql, args.toArray()) == 0) {
+            return 0;
+        }
+
+        int count = 0;
+        for (Session session : sessionRepository.findByIdIn(candidates.keySet())) {
+            Candidate candidate = candidates.get(session.getId());
+            // Only the rows this update closed: anything else changed them since
+            if (session.getVersion() == null || session.getVersion() != candidate.version() + 1
+                    || session.getStatus() == Session.SessionStatus.ACTIVE) {
+                sessionCache.invalidate(session.getId());
+                continue;
+            }
+            try {
+                sessionService.finishReaped(session, candidate.cyclesBefore());
+            } catch (Exception e) {
+                log.warn("Error finishing reaped session {}", session.getId(), e);
+            }
+            count++;
+        }
+        reaped.increment(count);
+        return count;
+    }
+
+    private record Candidate(long version, int cyclesBefore) {
+    }
+}
@@ -1,175 +1,524 @@
 package com.example.focusflow.service;
 
+import com.example.focusflow.entity.ActivityLog;
 import com.example.focusflow.entity.Session;
 import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.ArchivedSessionRepository;
 import com.example.focusflow.repository.SessionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
+
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 @Service
 public class SessionService {
     
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+    // Newest first, as both history queries order their rows
+    private static final int CREATE_ATTEMPTS = 3;
+
+    static final Comparator<SessionRepository.SessionSummary> HISTORY_ORDER = Comparator
+            .comparing(SessionRepository.SessionSummary::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(SessionRepository.SessionSummary::getId, Comparator.reverseOrder());
+    
+    @Value("${focusflow.session.update-attempts:3}")
+    private int updateAttempts;
+    
+    @Value("${focusflow.timer.resume-batch-size:500}")
+    private int resumeBatchSize;
+    
     @Autowired
     private SessionRepository sessionRepository;
     
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private ArchivedSessionRepository archivedSessionRepository;
+    
+    @Autowired
+    private SessionBroadcaster sessionBroadcaster;
+    
+    @Autowired
+    private SessionTimerEngine timerEngine;
+    
+    @Autowired
+    private SessionStateStore sessionStateStore;
+    
+    @Autowired
+    private SessionCache sessionCache;
+    
+    @Autowired
+    private IdentifierAllocator identifierAllocator;
+    
+    @Autowired
+    private ClusterRelay clusterRelay;
+    
+    @Autowired
+    private ActivityLogPipeline activityLogPipeline;
+    
+    @Autowired
+    private UserStatsService userStatsService;
+    
+    @Autowired
+    private LeaderboardService leaderboardService;
+    
+    @Autowired
+    private SessionArchive sessionArchive;
+    
+    @Autowired
+    private SessionMetrics sessionMetrics;
+    
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+    
+    @PostConstruct
+    public void registerListeners() {
+        timerEngine.setPhaseListener(this::advancePhase);
+        clusterRelay.setReceiver(this::onClusterMessage);
+    }
+    
+    /**
+     * Re-arms the timer of every session left running, since timers live only in
+     * memory. Each resumes with the time left at its last start less the time
+     * since; a phase that ran out while the node was down ends at once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningTimers() {
+        Long afterId = 0L;
+        while (true) {
+            List<Long> ids = sessionRepository.findRunningIdsAfter(Session.SessionStatus.ACTIVE, afterId,
+                    PageRequest.of(0, resumeBatchSize));
+            if (ids.isEmpty()) {
+                return;
+            }
+            for (Session session : sessionRepository.findByIdIn(ids)) {
+                startTimer(session);
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
     
     public Session createSession(User creator, double durationMinutes, double breakMinutes, double longBreakMinutes, int totalCycles) {
-        Session session = new Session();
-        session.setSessionCode(generateSessionCode());
-        session.setCreator(creator);
-        session.setDurationMinutes(durationMinutes);
-        session.setBreakMinutes(breakMinutes);
-        session.setLongBreakMinutes(longBreakMinutes);
-        session.setTotalCycles(totalCycles);
-        session.setStatus(Session.SessionStatus.CREATED);
-        
-        return sessionRepository.save(session);
+        for (int attempt = 1; ; attempt++) {
+            Session session = new Session();
+            session.setSessionCode(identifierAllocator.nextSessionCode());
+            session.setCreator(creator);
+            session.setDurationMinutes(durationMinutes);
+            session.setBreakMinutes(breakMinutes);
+            session.setLongBreakMinutes(longBreakMinutes);
+            session.setTotalCycles(totalCycles);
+            session.setStatus(Session.SessionStatus.CREATED);
+
+            try {
+                Session saved = sessionMetrics.timeDb("create", () -> sessionRepository.save(session));
+                sessionCache.put(saved);
+                sessionMetrics.transitioned(Session.SessionStatus.CREATED);
+                return saved;
+            } catch (DataIntegrityViolationException e) {
+                // The allocator never repeats itself, but a random code from before it may hold this one
+                if (attempt >= CREATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
     
     public Optional<Session> findBySessionCode(String sessionCode) {
-        return sessionRepository.findBySessionCode(sessionCode);
+        Optional<Session> session = sessionCache.getByCode(sessionCode, sessionRepository::findBySessionCode)
+                .map(sessionStateStore::overlay);
+        return session.isPresent() ? session : sessionArchive.findBySessionCode(sessionCode);
     }
     
     public Optional<Session> findById(Long id) {
-        return sessionRepository.findById(id);
+        Optional<Session> session = findHot(id);
+        return session.isPresent() ? session : sessionArchive.findById(id);
+    }
+    
+    // Archived sessions are read-only, so updates only ever load from the hot table
+    private Optional<Session> findHot(Long id) {
+        return sessionCache.getById(id, sessionRepository::findById).map(sessionStateStore::overlay);
+    }
+    
+    public Optional<Map<String, Object>> getSnapshot(String sessionCode) {
+        return findBySessionCode(sessionCode).map(sessionBroadcaster::snapshot);
     }
     
     public Session updateSessionStatus(Long sessionId, Session.SessionStatus status) {
-        Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
-        if (sessionOpt.isPresent()) {
-            Session session = sessionOpt.get();
-            session.setStatus(status);
+        Session session = sessionMetrics.timeDb("status", () -> applyUpdate(sessionId, candidate -> {
+            candidate.setStatus(status);
             
-            if (status == Session.SessionStatus.ACTIVE && session.getStartedAt() == null) {
-                session.setStartedAt(LocalDateTime.now());
+            if (status == Session.SessionStatus.ACTIVE && candidate.getStartedAt() == null) {
+                candidate.setStartedAt(LocalDateTime.now());
             } else if (status == Session.SessionStatus.COMPLETED) {
-                session.setCompletedAt(LocalDateTime.now());
+                candidate.setCompletedAt(LocalDateTime.now());
             }
-            
-            session = sessionRepository.save(session);
-            
-            // Broadcast session update via WebSocket
-            messagingTemplate.convertAndSend("/topic/session/" + session.getSessionCode(), session);
-            
-            return session;
+            return Step.WRITE;
+        }, candidate -> sessionRepository.updateStatus(candidate.getId(), candidate.getVersion(),
+                candidate.getStatus(), candidate.getStartedAt(), candidate.getCompletedAt(), candidate.getCurrentCycle(),
+                candidate.getCurrentTimeLeft(), candidate.getIsRunning(), candidate.getIsBreak(), candidate.getTimerStartedAt())).session());
+        sessionMetrics.transitioned(status);
+        
+        if (status != Session.SessionStatus.ACTIVE) {
+            stopTimer(session);
         }
-        throw new RuntimeException("Session not found");
+        
+        // Broadcast session update via WebSocket
+        sessionMetrics.timeBroadcast("status", () -> sessionBroadcaster.broadcast(session));
+        
+        switch (status) {
+            case ACTIVE -> logActivity(session, ActivityLog.ActivityType.SESSION_STARTED, "Session started");
+            case PAUSED -> logActivity(session, ActivityLog.ActivityType.SESSION_PAUSED, "Session paused");
+            case COMPLETED -> logActivity(session, ActivityLog.ActivityType.SESSION_COMPLETED, "Session completed");
+            case ENDED_EARLY -> logActivity(session, ActivityLog.ActivityType.SESSION_ENDED, "Session ended early");
+            default -> { }
+        }
+        
+        return session;
     }
     
     public Session updateCurrentCycle(Long sessionId, int cycle) {
-        Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
-        if (sessionOpt.isPresent()) {
-            Session session = sessionOpt.get();
-            session.setCurrentCycle(cycle);
+        return changeCycle(sessionId, cycle, null).session();
+    }
+    
+    // With an expected cycle this is a compare-and-set: it only applies while the session is still
+    // on that cycle, so a client that saw a phase end cannot advance past the timer engine
+    public Session updateCurrentCycle(Long sessionId, int cycle, Integer expectedCycle) {
+        return changeCycle(sessionId, cycle, expectedCycle).session();
+    }
+    
+    // The same compare-and-set, empty when the session had moved on so callers can re-read and retry
+    public Optional<Session> compareAndSetCycle(Long sessionId, int expectedCycle, int cycle) {
+        Update update = changeCycle(sessionId, cycle, expectedCycle);
+        return update.applied() ? Optional.of(update.session()) : Optional.empty();
+    }
+    
+    private Update changeCycle(Long sessionId, int cycle, Integer expectedCycle) {
+        Update update = sessionMetrics.timeDb("cycle", () -> applyUpdate(sessionId, candidate -> {
+            if (expectedCycle != null && candidate.getCurrentCycle() != expectedCycle) {
+                // Someone else already moved the session on; leave their cycle in place
+                return Step.SKIP;
+            }
+            candidate.setCurrentCycle(cycle);
             
             // Check if all cycles are completed (allow for both >= and > to catch edge cases)
-            if (cycle >= session.getTotalCycles() && session.getStatus() != Session.SessionStatus.COMPLETED) {
+            if (cycle >= candidate.getTotalCycles() && candidate.getStatus() != Session.SessionStatus.COMPLETED) {
                 // Set cycle to exactly the total cycles
-                session.setCurrentCycle(session.getTotalCycles());
-                session.setStatus(Session.SessionStatus.COMPLETED);
-                session.setCompletedAt(LocalDateTime.now());
-                session.setIsRunning(false); // Ensure timer is stopped
-                session.setIsBreak(false);   // Clear break state
-                System.out.println("🎉 Session " + sessionId + " marked as COMPLETED. All " + session.getTotalCycles() + " cycles completed.");
-            } else if (session.getStatus() != Session.SessionStatus.COMPLETED) {
-                System.out.println("📊 Session " + sessionId + " cycle updated to: " + cycle + "/" + session.getTotalCycles());
+                markCompleted(candidate);
+                return Step.WRITE;
             }
             
-            session = sessionRepository.save(session);
+            // Plain cycle advances are write-behind when enabled; completion is a status transition
+            return sessionStateStore.isEnabled() ? Step.RECORD : Step.WRITE;
+        }, this::writeProgress));
+        Session session = update.session();
+        
+        if (!update.applied()) {
+            return update;
+        }
+        
+        if (update.completed()) {
+            sessionMetrics.transitioned(Session.SessionStatus.COMPLETED);
+            stopTimer(session);
+            logActivity(session, ActivityLog.ActivityType.SESSION_COMPLETED, "Session completed after " + session.getTotalCycles() + " cycles");
+        } else if (session.getStatus() != Session.SessionStatus.COMPLETED) {
+            logActivity(session, ActivityLog.ActivityType.CYCLE_STARTED, "Cycle " + cycle + " of " + session.getTotalCycles() + " started");
+        }
+        
+        // Broadcast session update via WebSocket
+        sessionMetrics.timeBroadcast("cycle", () -> sessionBroadcaster.broadcast(session));
+        
+        return update;
+    }
+    
+    public Session checkAndUpdateCompletion(Long sessionId) {
+        Update update = sessionMetrics.timeDb("completion", () -> applyUpdate(sessionId, candidate -> {
+            // Force completion check - if cycles are complete but status isn't updated
+            if (candidate.getCurrentCycle() < candidate.getTotalCycles()
+                    || candidate.getStatus() == Session.SessionStatus.COMPLETED) {
+                return Step.SKIP;
+            }
+            markCompleted(candidate);
+            return Step.WRITE;
+        }, this::writeProgress));
+        Session session = update.session();
+        
+        if (update.completed()) {
+            sessionMetrics.transitioned(Session.SessionStatus.COMPLETED);
+            stopTimer(session);
             
             // Broadcast session update via WebSocket
-            messagingTemplate.convertAndSend("/topic/session/" + session.getSessionCode(), session);
-            
+            sessionMetrics.timeBroadcast("completion", () -> sessionBroadcaster.broadcast(session));
+            logActivity(session, ActivityLog.ActivityType.SESSION_COMPLETED, "Session completed after " + session.getTotalCycles() + " cycles");
+        }
+        
+        return session;
+    }
+    
+    public Session updateTimerState(Long sessionId, Integer timeLeft, Boolean isRunning, Boolean isBreak) {
+        // Countdown pushes for a phase the timer engine already owns change nothing
+        if (Boolean.TRUE.equals(isRunning) && timerEngine.isTracking(sessionId, Boolean.TRUE.equals(isBreak))) {
+            Session session = sessionMetrics.timeDb("timer", () -> findById(sessionId))
+                    .orElseThrow(() -> new RuntimeException("Session not found"));
+            Integer remaining = timerEngine.remainingSeconds(sessionId);
+            session.setCurrentTimeLeft(remaining != null ? remaining : timeLeft);
             return session;
         }
-        throw new RuntimeException("Session not found");
+        
+        Session session = sessionMetrics.timeDb("timer", () -> applyUpdate(sessionId, candidate -> {
+            candidate.setCurrentTimeLeft(timeLeft);
+            candidate.setIsRunning(isRunning);
+            candidate.setIsBreak(isBreak);
+            
+            if (isRunning) {
+                candidate.setTimerStartedAt(LocalDateTime.now());
+            }
+            
+            return sessionStateStore.isEnabled() ? Step.RECORD : Step.WRITE;
+        }, candidate -> sessionRepository.updateTimerState(candidate.getId(), candidate.getVersion(),
+                candidate.getCurrentTimeLeft(), candidate.getIsRunning(), candidate.getIsBreak(), candidate.getTimerStartedAt(),
+                candidate.getCurrentCycle())).session());
+        
+        if (isRunning) {
+            startTimer(session);
+            logActivity(session, ActivityLog.ActivityType.TIMER_STARTED, (Boolean.TRUE.equals(isBreak) ? "Break" : "Focus") + " timer started with " + timeLeft + "s left");
+        } else {
+            stopTimer(session);
+            logActivity(session, ActivityLog.ActivityType.TIMER_PAUSED, (Boolean.TRUE.equals(isBreak) ? "Break" : "Focus") + " timer paused with " + timeLeft + "s left");
+        }
+        
+        // Broadcast timer update via WebSocket
+        sessionMetrics.timeBroadcast("timer", () -> sessionBroadcaster.broadcast(session));
+        
+        return session;
     }
     
-    public Session checkAndUpdateCompletion(Long sessionId) {
-        Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
-        if (sessionOpt.isPresent()) {
-            Session session = sessionOpt.get();
+    private void advancePhase(Long sessionId) {
+        Update update = sessionMetrics.timeDb("phase", () -> applyUpdate(sessionId, candidate -> {
+            // A phase already advanced (by another node's timer, say) is no longer running
+            if (candidate.getStatus() == Session.SessionStatus.COMPLETED
+                    || candidate.getStatus() == Session.SessionStatus.ENDED_EARLY
+                    || !Boolean.TRUE.equals(candidate.getIsRunning())) {
+                return Step.SKIP;
+            }
             
-            // Force completion check - if cycles are complete but status isn't updated
-            if (session.getCurrentCycle() >= session.getTotalCycles() && 
-                session.getStatus() != Session.SessionStatus.COMPLETED) {
-                
-                session.setCurrentCycle(session.getTotalCycles());
-                session.setStatus(Session.SessionStatus.COMPLETED);
-                session.setCompletedAt(LocalDateTime.now());
-                session.setIsRunning(false);
-                session.setIsBreak(false);
-                
-                session = sessionRepository.save(session);
-                
-                // Broadcast session update via WebSocket
-                messagingTemplate.convertAndSend("/topic/session/" + session.getSessionCode(), session);
-                
-                System.out.println("✅ Force-completed session " + sessionId + " with " + session.getTotalCycles() + " cycles");
+            int cycle = candidate.getCurrentCycle();
+            if (!Boolean.TRUE.equals(candidate.getIsBreak())) {
+                // Work phase over: short break between cycles, long break after the last one
+                double breakMinutes = cycle < candidate.getTotalCycles() ? candidate.getBreakMinutes() : candidate.getLongBreakMinutes();
+                candidate.setIsBreak(true);
+                candidate.setCurrentTimeLeft(toSeconds(breakMinutes));
+            } else if (cycle >= candidate.getTotalCycles()) {
+                markCompleted(candidate);
+                candidate.setCurrentTimeLeft(0);
+            } else {
+                candidate.setCurrentCycle(cycle + 1);
+                candidate.setIsBreak(false);
+                candidate.setCurrentTimeLeft(toSeconds(candidate.getDurationMinutes()));
+            }
+            candidate.setIsRunning(false);
+            return Step.WRITE;
+        }, this::writeProgress));
+        Session session = update.session();
+        
+        if (update.applied()) {
+            stopTimer(session);
+            if (session.getStatus() == Session.SessionStatus.COMPLETED) {
+                sessionMetrics.transitioned(Session.SessionStatus.COMPLETED);
+                logActivity(session, ActivityLog.ActivityType.SESSION_COMPLETED, "Session completed after " + session.getTotalCycles() + " cycles");
+            } else if (Boolean.TRUE.equals(session.getIsBreak())) {
+                logActivity(session, ActivityLog.ActivityType.CYCLE_COMPLETED, "Cycle " + session.getCurrentCycle() + " of " + session.getTotalCycles() + " completed");
+                logActivity(session, ActivityLog.ActivityType.BREAK_STARTED, "Break started");
+            } else {
+                logActivity(session, ActivityLog.ActivityType.CYCLE_STARTED, "Cycle " + session.getCurrentCycle() + " of " + session.getTotalCycles() + " started");
             }
             
-            return session;
+            // Broadcast phase change via WebSocket
+            sessionMetrics.timeBroadcast("phase", () -> sessionBroadcaster.broadcast(session));
         }
-        throw new RuntimeException("Session not found");
     }
     
-    private String generateSessionCode() {
-        String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        Random random = new Random();
-        StringBuilder code = new StringBuilder();
+    /**
+     * Finishes a session the reaper closed with a set-based update: refreshes local
+     * state, credits any completed cycles and broadcasts the final state.
+     */
+    public void finishReaped(Session session, int cyclesBefore) {
+        afterWrite(session, sessionStateStore.currentSequence());
+        sessionMetrics.transitioned(session.getStatus());
+        stopTimer(session);
+        userStatsService.recordProgress(session, cyclesBefore, false);
+        if (session.getStatus() == Session.SessionStatus.COMPLETED) {
+            logActivity(session, ActivityLog.ActivityType.SESSION_COMPLETED, "Session completed after " + session.getTotalCycles() + " cycles");
+        } else {
+            logActivity(session, ActivityLog.ActivityType.SESSION_ENDED, "Session ended after being abandoned");
+        }
         
-        for (int i = 0; i < 6; i++) {
-            code.append(characters.charAt(random.nextInt(characters.length())));
+        // Broadcast final state via WebSocket
+        sessionMetrics.timeBroadcast("reap", () -> sessionBroadcaster.broadcast(session));
+    }
+    
+    private void startTimer(Session session) {
+        timerEngine.start(session);
+        clusterRelay.addInterest(session.getSessionCode(), ClusterRelay.TIMER_HOLDER);
+    }
+    
+    private void stopTimer(Session session) {
+        timerEngine.stop(session.getId());
+        clusterRelay.removeInterest(session.getSessionCode(), ClusterRelay.TIMER_HOLDER);
+    }
+    
+    private void onClusterMessage(ClusterTransport.ClusterMessage message) {
+        if (message.kind() == ClusterTransport.ClusterMessage.Kind.EVENT) {
+            if (PresenceRegistry.PEER_COUNT_EVENT.equals(message.event())) {
+                // Peer counts are merged into ours before anything reaches subscribers
+                presenceRegistry.onPeerPresence(message.sessionCode(), message.payload());
+            } else {
+                sessionBroadcaster.sendLocalEvent(message.sessionCode(), message.event(), message.payload());
+            }
+            return;
         }
         
-        String sessionCode = code.toString();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> fields = (Map<String, Object>) message.payload();
+        Long sessionId = ((Number) fields.get("id")).longValue();
         
-        // Ensure uniqueness
-        while (sessionRepository.existsBySessionCode(sessionCode)) {
-            code = new StringBuilder();
-            for (int i = 0; i < 6; i++) {
-                code.append(characters.charAt(random.nextInt(characters.length())));
-            }
-            sessionCode = code.toString();
+        // A peer changed this session: drop local copies
+        sessionCache.invalidate(sessionId);
+        sessionStateStore.evict(sessionId);
+        if (message.timerHeld()) {
+            // The peer started the timer, so it clocks the session from now on
+            timerEngine.stop(sessionId);
+            clusterRelay.removeInterest(message.sessionCode(), ClusterRelay.TIMER_HOLDER);
+        } else if (timerEngine.isTracking(sessionId)) {
+            rebaseTimer(sessionId, message.sessionCode(), fields);
         }
         
-        return sessionCode;
+        sessionBroadcaster.broadcastLocal(fields);
     }
     
-    public Session updateTimerState(Long sessionId, Integer timeLeft, Boolean isRunning, Boolean isBreak) {
-        Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
-        if (sessionOpt.isPresent()) {
-            Session session = sessionOpt.get();
-            session.setCurrentTimeLeft(timeLeft);
-            session.setIsRunning(isRunning);
-            session.setIsBreak(isBreak);
-            
-            if (isRunning) {
-                session.setTimerStartedAt(LocalDateTime.now());
+    // The timer stays here; follow whatever the peer changed about the running phase
+    private void rebaseTimer(Long sessionId, String sessionCode, Map<String, Object> fields) {
+        Session relayed = new Session();
+        relayed.setId(sessionId);
+        relayed.setSessionCode(sessionCode);
+        relayed.setStatus(fields.get("status") != null ? Session.SessionStatus.valueOf(fields.get("status").toString()) : null);
+        relayed.setCurrentTimeLeft(fields.get("currentTimeLeft") instanceof Number timeLeft ? timeLeft.intValue() : null);
+        relayed.setIsRunning(Boolean.TRUE.equals(fields.get("isRunning")));
+        relayed.setIsBreak(Boolean.TRUE.equals(fields.get("isBreak")));
+        relayed.setTimerStartedAt(fields.get("timerStartedAt") instanceof LocalDateTime startedAt ? startedAt : null);
+        // Same rule as a local write: only a status change away from CREATED/ACTIVE or a pause stops the clock
+        boolean open = relayed.getStatus() == Session.SessionStatus.ACTIVE || relayed.getStatus() == Session.SessionStatus.CREATED;
+        if (relayed.getIsRunning() && open) {
+            timerEngine.start(relayed);
+        } else {
+            stopTimer(relayed);
+        }
+    }
+    
+    // What a change asks of applyUpdate once it has looked at the session
+    private enum Step {
+        // Write the change now with the guarded update
+        WRITE,
+        // Hand the change to the write-behind store
+        RECORD,
+        // Not applicable to the session as found; nothing changed
+        SKIP
+    }
+    
+    // The session as applyUpdate left it, whether the change applied, and whether it completed the session
+    private record Update(Session session, boolean applied, boolean completed) {
+    }
+    
+    /**
+     * Applies a change to the latest known state of the session and writes it back
+     * with a single version-guarded update, or records it in the write-behind store
+     * if nothing newer was recorded meanwhile. If another request got there first
+     * the session is reloaded and the change re-applied, up to the configured
+     * number of attempts.
+     */
+    private Update applyUpdate(Long sessionId, Function<Session, Step> change, ToIntFunction<Session> write) {
+        for (int attempt = 1; ; attempt++) {
+            // Write-behind states recorded after this point are newer than anything this write includes
+            long seenSequence = sessionStateStore.sequenceOf(sessionId);
+            // A private copy: nothing below is visible to other readers until it is written and cached
+            Session session = findHot(sessionId)
+                    .orElseThrow(() -> new RuntimeException("Session not found"));
+            int cyclesBefore = UserStatsService.completedCycles(session.getCurrentCycle(), session.getTotalCycles(),
+                    session.getStatus(), session.getIsBreak());
+            boolean completedBefore = session.getStatus() == Session.SessionStatus.COMPLETED;
+            Step step = change.apply(session);
+            if (step == Step.SKIP) {
+                // Nothing to write here, but a write-behind change may still have made progress
+                userStatsService.recordProgress(session, cyclesBefore, completedBefore);
+                return new Update(session, false, false);
+            }
+            if (step == Step.RECORD ? sessionStateStore.record(session, seenSequence) : write.applyAsInt(session) == 1) {
+                if (step == Step.WRITE) {
+                    session.setVersion(session.getVersion() + 1);
+                    afterWrite(session, seenSequence);
+                }
+                userStatsService.recordProgress(session, cyclesBefore, completedBefore);
+                return new Update(session, true,
+                        !completedBefore && session.getStatus() == Session.SessionStatus.COMPLETED);
             }
             
-            session = sessionRepository.save(session);
-            
-            // Broadcast timer update via WebSocket
-            messagingTemplate.convertAndSend("/topic/session/" + session.getSessionCode(), session);
-            
-            return session;
+            // Lost the race: drop the stale copy and try again from the database
+            sessionCache.invalidate(sessionId);
+            if (attempt >= updateAttempts) {
+                throw new OptimisticLockingFailureException("Session " + sessionId + " was modified concurrently");
+            }
         }
-        throw new RuntimeException("Session not found");
+    }
+    
+    private int writeProgress(Session session) {
+        return sessionRepository.updateProgress(session.getId(), session.getVersion(),
+                session.getCurrentCycle(), session.getStatus(), session.getCompletedAt(),
+                session.getCurrentTimeLeft(), session.getIsRunning(), session.getIsBreak(), session.getTimerStartedAt());
+    }
+    
+    private void afterWrite(Session session, long seenSequence) {
+        sessionCache.put(session);
+        if (session.getStatus() == Session.SessionStatus.COMPLETED
+                || session.getStatus() == Session.SessionStatus.ENDED_EARLY) {
+            sessionStateStore.evict(session.getId());
+        } else {
+            sessionStateStore.markClean(session, seenSequence);
+        }
+    }
+    
+    private void logActivity(Session session, ActivityLog.ActivityType type, String message) {
+        Long userId = session.getCreator() != null ? session.getCreator().getId() : null;
+        activityLogPipeline.publish(userId, session.getId(), type, message);
+    }
+    
+    private static void markCompleted(Session session) {
+        session.setCurrentCycle(session.getTotalCycles());
+        session.setStatus(Session.SessionStatus.COMPLETED);
+        session.setCompletedAt(LocalDateTime.now());
+        session.setIsRunning(false); // Ensure timer is stopped
+        session.setIsBreak(false);   // Clear break state
+    }
+    
+    private static int toSeconds(double minutes) {
+        return (int) Math.round(minutes * 60);
     }
     
     public Session joinSession(Long sessionId, User user) {
-        Optional<Session> sessionOpt = sessionRepository.findById(sessionId);
+        Optional<Session> sessionOpt = sessionMetrics.timeDb("join", () -> findById(sessionId));
         if (sessionOpt.isPresent()) {
             Session session = sessionOpt.get();
             
@@ -177,14 +526,49 @@ public class SessionService {
             Map<String, Object> userJoinedMessage = new HashMap<>();
             userJoinedMessage.put("user", user.getUsername());
             userJoinedMessage.put("timestamp", LocalDateTime.now());
-            messagingTemplate.convertAndSend("/topic/session/" + session.getSessionCode() + "/user-joined", userJoinedMessage);
+            sessionMetrics.timeBroadcast("join", () -> sessionBroadcaster.sendEvent(session.getSessionCode(), "user-joined", userJoinedMessage));
+            leaderboardService.joinRoom(session.getSessionCode(), user.getId());
             
             return session;
         }
         throw new RuntimeException("Session not found");
     }
 
-    public List<Session> findByCreatorOrderByCreatedAtDesc(User creator) {
-        return sessionRepository.findByCreatorOrderByCreatedAtDesc(creator);
+    /**
+     * One page of the creator's history, newest first, strictly older than the
+     * given (createdAt, id) cursor. A null cursor starts from the newest session
+     * before {@code to}. Optional filters: status and a [from, to) creation range.
+     * Hot and archived sessions are paged with the same cursor and merged.
+     */
+    public List<SessionRepository.SessionSummary> findHistoryPage(User creator, LocalDateTime cursorCreatedAt, Long cursorId,
+                                                                  Session.SessionStatus status, LocalDateTime from,
+                                                                  LocalDateTime to, int limit) {
+        LocalDateTime lower = from != null ? from : HISTORY_START;
+        LocalDateTime beforeCreatedAt = to != null ? to : HISTORY_END;
+        Long beforeId = Long.MIN_VALUE;
+        if (cursorCreatedAt != null && cursorId != null && cursorCreatedAt.isBefore(beforeCreatedAt)) {
+            beforeCreatedAt = cursorCreatedAt;
+            beforeId = cursorId;
+        }
+        List<SessionRepository.SessionSummary> hot = sessionRepository.findHistoryPage(creator.getId(), status,
+                lower, beforeCreatedAt, beforeId, PageRequest.of(0, limit));
+        List<SessionRepository.SessionSummary> archived = archivedSessionRepository.findHistoryPage(creator.getId(),
+                status, lower, beforeCreatedAt, beforeId, PageRequest.of(0, limit));
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        
+        // Both pages are newest first; take the newest `limit` of the two
+        List<SessionRepository.SessionSummary> page = new ArrayList<>(limit);
+        int h = 0;
+        int a = 0;
+        while (page.size() < limit && (h < hot.size() || a < archived.size())) {
+            if (a >= archived.size() || (h < hot.size() && HISTORY_ORDER.compare(hot.get(h), archived.get(a)) <= 0)) {
+                page.add(hot.get(h++));
+            } else {
+                page.add(archived.get(a++));
+            }
+        }
+        return page;
     }
 }
@@ -0,0 +1,284 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind store for the volatile timer columns of a session.
+ *
+ * Timer and cycle updates land here instead of the database; reads overlay the
+ * latest in-memory state on the loaded entity. Dirty sessions are coalesced and
+ * written back in one JDBC batch per flush interval, so a burst of updates to
+ * one session costs a single row update. Status transitions go through JPA as
+ * before, write the in-memory columns with them and mark the session clean.
+ *
+ * Every recorded state carries a sequence number. A guarded write only marks
+ * the session clean if nothing was recorded after it read the session;
+ * otherwise the newer state stays dirty and goes out with the next flush. A
+ * state is itself only recorded if the session's state is the one it was read
+ * with, so read-modify-write updates do not lose each other.
+ *
+ * States also carry the row version they apply to. A flush writes a row only
+ * if its version is unchanged and bumps it, so it never overwrites a newer
+ * guarded write; reads pick the bumped version up through the overlay. Clean
+ * states nobody has touched for the idle period are dropped along with the
+ * cached session, so paused and abandoned sessions do not stay in memory.
+ */
+@Service
+public class SessionStateStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionStateStore.class);
+
+    private static final String UPDATE_SQL =
+        "UPDATE sessions SET current_time_left = ?, is_running = ?, is_break = ?, timer_started_at = ?, current_cycle = ?, " +
+        "version = version + 1 WHERE id = ? AND version = ?";
+
+    @Value("${focusflow.session.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${focusflow.session.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${focusflow.session.write-behind.idle-seconds:300}")
+    private long idleSeconds;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SessionCache sessionCache;
+
+    private final Map<Long, TimerState> states = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong updatesReceived = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records the session's volatile columns to be written back later, as read
+     * when its state had sequence {@code seenSequence}. Returns false without
+     * recording if the state changed since: recorded, flushed, rebased on a
+     * guarded write or dropped. The caller reloads and tries again, as it would
+     * after losing a guarded write.
+     */
+    public boolean record(Session session, long seenSequence) {
+        TimerState current = states.get(session.getId());
+        boolean unchanged = current == null
+                ? seenSequence == 0
+                : current.sequence() == seenSequence && Objects.equals(current.version(), session.getVersion());
+        if (!unchanged) {
+            return false;
+        }
+        // Numbered after reading the state it replaces, so the stored state always has the highest sequence
+        TimerState next = TimerState.of(session, sequence.incrementAndGet());
+        boolean stored = current == null
+                ? states.putIfAbsent(session.getId(), next) == null
+                : states.replace(session.getId(), current, next);
+        if (!stored) {
+            return false;
+        }
+        dirty.add(session.getId());
+        updatesReceived.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Applies the latest in-memory state, if any, on top of a loaded session.
+     */
+    public Session overlay(Session session) {
+        if (session != null) {
+            TimerState state = states.get(session.getId());
+            if (state != null) {
+                state.applyTo(session);
+                if (state.version() != null && (session.getVersion() == null || state.version() > session.getVersion())) {
+                    // Flushed since the session was loaded
+                    session.setVersion(state.version());
+                }
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Sequence of the latest recorded state of any session.
+     */
+    public long currentSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Sequence of the session's state, or 0 if it has none; read it before
+     * loading the session to update.
+     */
+    public long sequenceOf(Long sessionId) {
+        TimerState state = states.get(sessionId);
+        return state != null ? state.sequence() : 0;
+    }
+
+    /**
+     * Called after the session has been written with its current state, as read
+     * when the sequence was {@code seenSequence}. States recorded since then are
+     * newer than what was written and stay dirty.
+     */
+    public void markClean(Session session, long seenSequence) {
+        states.computeIfPresent(session.getId(), (id, current) -> {
+            if (current.sequence() > seenSequence) {
+                // Newer than the write: flush it on top of the version just written
+                dirty.add(id);
+                return current.withVersion(session.getVersion());
+            }
+            dirty.remove(id);
+            return TimerState.of(session, current.sequence());
+        });
+    }
+
+    public void evict(Long sessionId) {
+        dirty.remove(sessionId);
+        states.remove(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${focusflow.session.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(Math.min(dirty.size(), batchSize));
+        Iterator<Long> it = dirty.iterator();
+        while (it.hasNext()) {
+            Long sessionId = it.next();
+            // Remove before reading so an update racing with the flush re-marks the session
+            it.remove();
+            TimerState state = states.get(sessionId);
+            if (state == null) {
+                continue;
+            }
+            batch.add(state.toRow(sessionId));
+            if (batch.size() >= batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Drops clean states untouched for the idle period, and the cached session
+     * they were overlaid on, so the next read loads the flushed row.
+     */
+    @Scheduled(fixedDelayString = "${focusflow.session.write-behind.idle-sweep-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - idleSeconds * 1_000_000_000L;
+        states.forEach((sessionId, state) -> {
+            if (!dirty.contains(sessionId) && state.touchedAtNanos() - cutoff <= 0 && states.remove(sessionId, state)) {
+                sessionCache.invalidate(sessionId);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public long getUpdatesReceived() {
+        return updatesReceived.get();
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    public int getTrackedCount() {
+        return states.size();
+    }
+
+    private void write(List<Object[]> batch) {
+        try {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            for (int i = 0; i < counts.length; i++) {
+                Long sessionId = (Long) batch.get(i)[5];
+                Long version = (Long) batch.get(i)[6];
+                if (counts[i] == 0) {
+                    // The row moved past this version. A guarded write here rebases the state
+                    // onto its own version; otherwise (another node, a reaper) drop the stale
+                    // state and cached copy so the next read loads the row as it is now
+                    if (states.computeIfPresent(sessionId, (id, current) ->
+                            Objects.equals(current.version(), version) ? null : current) == null) {
+                        dirty.remove(sessionId);
+                        sessionCache.invalidate(sessionId);
+                    }
+                    continue;
+                }
+                rowsWritten.incrementAndGet();
+                states.computeIfPresent(sessionId, (id, current) ->
+                        Objects.equals(current.version(), version) ? current.withVersion(version + 1) : current);
+            }
+        } catch (Exception e) {
+            // Put the rows back so the next flush retries them
+            batch.forEach(row -> dirty.add((Long) row[5]));
+            log.warn("Error flushing session timer state", e);
+        }
+    }
+
+    private record TimerState(Integer currentTimeLeft, Boolean isRunning, Boolean isBreak,
+                              LocalDateTime timerStartedAt, int currentCycle, Long version, long sequence,
+                              long touchedAtNanos) {
+
+        static TimerState of(Session session, long sequence) {
+            return new TimerState(session.getCurrentTimeLeft(), session.getIsRunning(), session.getIsBreak(),
+                    session.getTimerStartedAt(), session.getCurrentCycle(), session.getVersion(), sequence,
+                    System.nanoTime());
+        }
+
+        TimerState withVersion(Long version) {
+            return new TimerState(currentTimeLeft, isRunning, isBreak, timerStartedAt, currentCycle, version, sequence,
+                    touchedAtNanos);
+        }
+
+        void applyTo(Session session) {
+            session.setCurrentTimeLeft(currentTimeLeft);
+            session.setIsRunning(isRunning);
+            session.setIsBreak(isBreak);
+            session.setTimerStartedAt(timerStartedAt);
+            session.setCurrentCycle(currentCycle);
+        }
+
+        Object[] toRow(Long sessionId) {
+            return new Object[] {
+                currentTimeLeft, isRunning, isBreak,
+                timerStartedAt != null ? Timestamp.valueOf(timerStartedAt) : null,
+                currentCycle, sessionId, version
+            };
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Server-side clock for running sessions.
+ *
+ * Each running session has exactly one pending timeout on the timing wheel for
+ * the end of its current phase. Client countdown pushes for a phase the engine
+ * already owns are answered from here; only the phase transition itself is
+ * handed to the listener, which persists and broadcasts it.
+ */
+@Service
+public class SessionTimerEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTimerEngine.class);
+
+    @Value("${focusflow.timer.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${focusflow.timer.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${focusflow.timer.transition-threads:2}")
+    private int transitionThreads;
+
+    private final Map<Long, RunningTimer> running = new ConcurrentHashMap<>();
+
+    private TimingWheel wheel;
+    private ExecutorService transitions;
+    private volatile Consumer<Long> phaseListener = sessionId -> { };
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        transitions = Executors.newFixedThreadPool(transitionThreads, runnable -> {
+            Thread thread = new Thread(runnable, "session-timer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        wheel = new TimingWheel(tickMs, wheelSize, transitions);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.close();
+        transitions.shutdown();
+        running.clear();
+    }
+
+    public void setPhaseListener(Consumer<Long> phaseListener) {
+        this.phaseListener = phaseListener;
+    }
+
+    /**
+     * Starts (or restarts) the clock for the session's current phase using its
+     * persisted time left, less whatever has elapsed since the timer was started.
+     * A phase that has already run out ends at once. Sessions without a positive
+     * time left are ignored.
+     */
+    public void start(Session session) {
+        Integer timeLeft = session.getCurrentTimeLeft();
+        if (timeLeft == null || timeLeft <= 0) {
+            stop(session.getId());
+            return;
+        }
+        long delayMs = timeLeft * 1000L;
+        if (Boolean.TRUE.equals(session.getIsRunning()) && session.getTimerStartedAt() != null) {
+            delayMs -= Duration.between(session.getTimerStartedAt(), LocalDateTime.now()).toMillis();
+        }
+
+        RunningTimer timer = new RunningTimer(session.getId(), Boolean.TRUE.equals(session.getIsBreak()),
+                System.currentTimeMillis() + Math.max(0, delayMs));
+        // Registered before it is scheduled, so an expiry on the next tick always finds it
+        RunningTimer previous = running.put(session.getId(), timer);
+        if (previous != null) {
+            previous.cancel();
+        }
+        timer.schedule(wheel, delayMs, () -> expire(timer));
+    }
+
+    public void stop(Long sessionId) {
+        RunningTimer timer = running.remove(sessionId);
+        if (timer != null) {
+            timer.cancel();
+        }
+    }
+
+    public boolean isTracking(Long sessionId) {
+        return running.containsKey(sessionId);
+    }
+
+    public boolean isTracking(Long sessionId, boolean isBreak) {
+        RunningTimer timer = running.get(sessionId);
+        return timer != null && timer.isBreak == isBreak;
+    }
+
+    /**
+     * Seconds left in the current phase, or null if the session is not running.
+     */
+    public Integer remainingSeconds(Long sessionId) {
+        RunningTimer timer = running.get(sessionId);
+        if (timer == null) {
+            return null;
+        }
+        long remainingMs = timer.deadlineMs - System.currentTimeMillis();
+        return (int) Math.max(0, (remainingMs + 999) / 1000);
+    }
+
+    public int getRunningCount() {
+        return running.size();
+    }
+
+    private void expire(RunningTimer timer) {
+        // A restart may have replaced this timer after it fired
+        if (!running.remove(timer.sessionId, timer)) {
+            return;
+        }
+        try {
+            phaseListener.accept(timer.sessionId);
+        } catch (Exception e) {
+            log.warn("Error advancing phase for session {}", timer.sessionId, e);
+        }
+    }
+
+    private static final class RunningTimer {
+        private final Long sessionId;
+        private final boolean isBreak;
+        private final long deadlineMs;
+        private TimingWheel.Timeout timeout;
+        private boolean cancelled;
+
+        RunningTimer(Long sessionId, boolean isBreak, long deadlineMs) {
+            this.sessionId = sessionId;
+            this.isBreak = isBreak;
+            this.deadlineMs = deadlineMs;
+        }
+
+        // A stop or restart may get in between registering the timer and scheduling it
+        synchronized void schedule(TimingWheel wheel, long delayMs, Runnable task) {
+            if (!cancelled) {
+                timeout = wheel.schedule(task, delayMs);
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.focusflow.service;
+
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical hashed timing wheel.
+ *
+ * Timeouts are hashed into fixed-size buckets by deadline; deadlines beyond the
+ * range of a wheel go to a lazily created overflow wheel whose tick is the full
+ * interval of the wheel below it. Only non-empty buckets are queued, so the
+ * worker thread sleeps until the next bucket is due instead of ticking through
+ * empty slots. Each bucket is an intrusive linked list, so scheduling and
+ * cancelling are O(1) and a cancelled timeout is unlinked straight away rather
+ * than held until its deadline. Expired tasks are handed to the supplied
+ * executor so slow callbacks never stall the wheel.
+ */
+public class TimingWheel implements AutoCloseable {
+
+    public interface Timeout {
+        long getDeadline();
+        boolean cancel();
+        boolean isCancelled();
+    }
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final Executor executor;
+    private final DelayQueue<Bucket> queue = new DelayQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Level root;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public TimingWheel(long tickMs, int wheelSize, Executor executor) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMs and wheelSize must be positive");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.executor = executor;
+        this.root = new Level(tickMs, System.currentTimeMillis());
+        this.worker = new Thread(this::run, "timing-wheel");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delayMs) {
+        Entry entry = new Entry(task, System.currentTimeMillis() + Math.max(0, delayMs));
+        pending.incrementAndGet();
+        lock.lock();
+        try {
+            addOrRun(entry);
+        } finally {
+            lock.unlock();
+        }
+        return entry;
+    }
+
+    public int size() {
+        return pending.get();
+    }
+
+    /**
+     * Entries still linked into buckets, counted by walking every level. Equal to
+     * {@link #size()} once nothing is mid-flush; for tests and diagnostics only.
+     */
+    int linkedCount() {
+        lock.lock();
+        try {
+            int count = 0;
+            for (Level level = root; level != null; level = level.overflow) {
+                for (Bucket bucket : level.buckets) {
+                    for (Entry entry = bucket.head; entry != null; entry = entry.next) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Bucket bucket = queue.poll(tickMs, TimeUnit.MILLISECONDS);
+                if (bucket == null) {
+                    continue;
+                }
+                lock.lock();
+                try {
+                    while (bucket != null) {
+                        root.advanceClock(bucket.getExpiration());
+                        bucket.flush(this::addOrRun);
+                        bucket = queue.poll();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void addOrRun(Entry entry) {
+        if (entry.isCancelled()) {
+            return;
+        }
+        if (!root.add(entry) && entry.expire()) {
+            pending.decrementAndGet();
+            executor.execute(entry.task);
+        }
+    }
+
+    private final class Level {
+        private final long tick;
+        private final long interval;
+        private final Bucket[] buckets;
+        private long currentTime;
+        private Level overflow;
+
+        Level(long tick, long startMs) {
+            this.tick = tick;
+            this.interval = tick * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.currentTime = startMs - (startMs % tick);
+        }
+
+        boolean add(Entry entry) {
+            long deadline = entry.deadline;
+            // The finest level rounds up so a task never fires before its deadline;
+            // coarser levels round down and cascade into the finer ones in time.
+            boolean finest = tick == tickMs;
+            if (finest ? deadline <= currentTime : deadline < currentTime + tick) {
+                return false;
+            }
+            long virtualId = finest ? Math.floorDiv(deadline + tick - 1, tick) : deadline / tick;
+            if (virtualId * tick < currentTime + interval) {
+                Bucket bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.add(entry);
+                if (bucket.setExpiration(virtualId * tick)) {
+                    queue.offer(bucket);
+                }
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(interval, currentTime);
+            }
+            return overflow.add(entry);
+        }
+
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tick) {
+                currentTime = timeMs - (timeMs % tick);
+                if (overflow != null) {
+                    overflow.advanceClock(currentTime);
+                }
+            }
+        }
+    }
+
+    // Entries are linked and unlinked only while holding the wheel lock
+    private static final class Bucket implements Delayed {
+        private final AtomicLong expiration = new AtomicLong(-1L);
+        private Entry head;
+
+        void add(Entry entry) {
+            entry.bucket = this;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            head = entry;
+        }
+
+        void remove(Entry entry) {
+            if (entry.prev != null) {
+                entry.prev.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            }
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+
+        boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        long getExpiration() {
+            return expiration.get();
+        }
+
+        void flush(Consumer<Entry> sink) {
+            Entry entry = head;
+            head = null;
+            expiration.set(-1L);
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.bucket = null;
+                entry.prev = null;
+                entry.next = null;
+                sink.accept(entry);
+                entry = next;
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getExpiration(), ((Bucket) other).getExpiration());
+        }
+    }
+
+    private final class Entry implements Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private Bucket bucket;
+        private Entry prev;
+        private Entry next;
+
+        Entry(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        boolean expire() {
+            return state.compareAndSet(WAITING, EXPIRED);
+        }
+
+        @Override
+        public long getDeadline() {
+            return deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(WAITING, CANCELLED)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            // Unlink now so long-deadline timeouts that are cancelled early do not pile up in their buckets
+            lock.lock();
+            try {
+                if (bucket != null) {
+                    bucket.remove(this);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+    }
+}
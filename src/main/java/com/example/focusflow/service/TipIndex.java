@@ -0,0 +1,248 @@
+package com.example.focusflow.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable inverted index over a tip corpus, ranked by TF-IDF cosine similarity.
+ *
+ * Each tip is tokenized into lowercase terms (stop words dropped) and every
+ * term maps to a postings list of the tips containing it, with the tip's
+ * weight for the term precomputed as (1 + log tf) * idf and normalized by the
+ * tip's vector length. A query walks only the postings of its own terms and
+ * keeps the best k tips in a small heap, so its cost depends on how common
+ * the query terms are rather than on the corpus size. Scoring scratch space is
+ * reused per thread; the index itself is never modified after construction and
+ * can be shared freely.
+ */
+public class TipIndex {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "for", "from", "how", "i", "if",
+        "in", "into", "is", "it", "its", "me", "my", "of", "on", "or", "so", "that", "the", "their", "then",
+        "this", "to", "up", "was", "what", "when", "with", "you", "your"
+    );
+
+    public record Match(int tip, float score) {
+    }
+
+    private final List<String> tips;
+    private final Map<String, Postings> postings;
+    private final ThreadLocal<Scratch> scratch;
+
+    public TipIndex(List<String> tips) {
+        this.tips = List.copyOf(tips);
+
+        // Term frequencies per tip, then document frequencies per term
+        List<Map<String, Integer>> termCounts = new ArrayList<>(this.tips.size());
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        for (String tip : this.tips) {
+            Map<String, Integer> counts = new HashMap<>();
+            for (String term : tokenize(tip)) {
+                counts.merge(term, 1, Integer::sum);
+            }
+            counts.keySet().forEach(term -> documentFrequency.merge(term, 1, Integer::sum));
+            termCounts.add(counts);
+        }
+
+        Map<String, Double> idf = new HashMap<>();
+        documentFrequency.forEach((term, df) -> idf.put(term, Math.log(1.0 + (double) this.tips.size() / df)));
+
+        // Weights normalized per tip so long tips do not win by length alone
+        Map<String, Postings> built = new HashMap<>(documentFrequency.size() * 2);
+        documentFrequency.forEach((term, df) -> built.put(term, new Postings(df, idf.get(term).floatValue())));
+        for (int tip = 0; tip < termCounts.size(); tip++) {
+            Map<String, Integer> counts = termCounts.get(tip);
+            double norm = 0;
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                double weight = (1 + Math.log(entry.getValue())) * idf.get(entry.getKey());
+                norm += weight * weight;
+            }
+            norm = Math.sqrt(norm);
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                double weight = (1 + Math.log(entry.getValue())) * idf.get(entry.getKey());
+                built.get(entry.getKey()).add(tip, (float) (weight / norm));
+            }
+        }
+        this.postings = built;
+
+        int size = this.tips.size();
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(size));
+    }
+
+    public int size() {
+        return tips.size();
+    }
+
+    public String tip(int index) {
+        return tips.get(index);
+    }
+
+    /**
+     * The k tips most similar to the query, best first. Tips sharing no term with
+     * the query are never returned, so the result may be shorter than k.
+     */
+    public List<Match> search(String query, int k) {
+        if (query == null || k <= 0 || tips.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Integer> queryCounts = new HashMap<>();
+        for (String term : tokenize(query)) {
+            if (postings.containsKey(term)) {
+                queryCounts.merge(term, 1, Integer::sum);
+            }
+        }
+        if (queryCounts.isEmpty()) {
+            return List.of();
+        }
+
+        Scratch s = scratch.get();
+        try {
+            for (Map.Entry<String, Integer> entry : queryCounts.entrySet()) {
+                Postings list = postings.get(entry.getKey());
+                float queryWeight = (float) ((1 + Math.log(entry.getValue())) * list.idf);
+                for (int i = 0; i < list.size; i++) {
+                    int tip = list.tips[i];
+                    if (s.scores[tip] == 0) {
+                        s.touched[s.touchedCount++] = tip;
+                    }
+                    s.scores[tip] += queryWeight * list.weights[i];
+                }
+            }
+            return topK(s, k);
+        } finally {
+            s.reset();
+        }
+    }
+
+    /**
+     * Lowercase alphanumeric terms of the text, without stop words or single characters.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start > 1) {
+                    String term = text.substring(start, i).toLowerCase(Locale.ROOT);
+                    if (!STOP_WORDS.contains(term)) {
+                        terms.add(term);
+                    }
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static List<Match> topK(Scratch s, int k) {
+        // Min-heap of the best k seen so far, ordered by score then lower tip index
+        int[] heap = new int[Math.min(k, s.touchedCount)];
+        int heapSize = 0;
+        for (int i = 0; i < s.touchedCount; i++) {
+            int tip = s.touched[i];
+            if (heapSize < heap.length) {
+                heap[heapSize] = tip;
+                siftUp(heap, heapSize++, s.scores);
+            } else if (better(tip, heap[0], s.scores)) {
+                heap[0] = tip;
+                siftDown(heap, heapSize, s.scores);
+            }
+        }
+
+        Match[] result = new Match[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = new Match(heap[0], s.scores[heap[0]]);
+            heap[0] = heap[i];
+            siftDown(heap, i, s.scores);
+        }
+        return Arrays.asList(result);
+    }
+
+    private static boolean better(int a, int b, float[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    private static void siftUp(int[] heap, int index, float[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!better(heap[parent], heap[index], scores)) {
+                break;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            int right = left + 1;
+            int smallest = index;
+            if (left < size && better(heap[smallest], heap[left], scores)) {
+                smallest = left;
+            }
+            if (right < size && better(heap[smallest], heap[right], scores)) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    private static final class Postings {
+        private final float idf;
+        private final int[] tips;
+        private final float[] weights;
+        private int size;
+
+        Postings(int documentFrequency, float idf) {
+            this.idf = idf;
+            this.tips = new int[documentFrequency];
+            this.weights = new float[documentFrequency];
+        }
+
+        void add(int tip, float weight) {
+            tips[size] = tip;
+            weights[size] = weight;
+            size++;
+        }
+    }
+
+    private static final class Scratch {
+        private final float[] scores;
+        private final int[] touched;
+        private int touchedCount;
+
+        Scratch(int size) {
+            this.scores = new float[size];
+            this.touched = new int[size];
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.focusflow.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-user shuffle bags over a corpus of n items, in a fixed amount of memory.
+ *
+ * A user's bag is a pseudo-random permutation of [0, n) given by a 24-bit seed:
+ * a small keyed Feistel network over the next even power of two, cycle-walked
+ * back into range. The user's whole state is that seed, the corpus generation
+ * it was drawn for and their position in the bag, packed into one long. Every
+ * item comes up once before any repeats; after the last one a new seed starts
+ * a new bag.
+ *
+ * States live in a set-associative table of {@value #WAYS} slots per bucket.
+ * A user not in their bucket takes a free slot or evicts a random one, so the
+ * table never grows; an evicted user simply starts a fresh bag. Each slot costs
+ * 16 bytes (user id and state) and nothing is allocated per lookup.
+ */
+public class TipRotation {
+
+    private static final int WAYS = 4;
+    private static final int STRIPES = 64;
+    private static final int ROUNDS = 4;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long[] users;
+    private final long[] states;
+    private final int bucketMask;
+    private final Object[] locks = new Object[STRIPES];
+
+    /**
+     * Capacity is rounded up to a power of two number of buckets.
+     */
+    public TipRotation(int capacity) {
+        int needed = Math.max(1, (capacity + WAYS - 1) / WAYS);
+        int buckets = needed == 1 ? 1 : Integer.highestOneBit(needed - 1) << 1;
+        this.bucketMask = buckets - 1;
+        this.users = new long[buckets * WAYS];
+        this.states = new long[buckets * WAYS];
+        Arrays.fill(users, EMPTY);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * The next item in the user's bag for a corpus of the given size. A change of
+     * generation (a reloaded corpus) starts a new bag.
+     */
+    public int next(long userId, int size, int generation) {
+        if (size <= 1) {
+            return 0;
+        }
+        int bucket = bucket(userId);
+        synchronized (locks[bucket & (STRIPES - 1)]) {
+            int base = bucket * WAYS;
+            int slot = -1;
+            for (int i = base; i < base + WAYS; i++) {
+                if (users[i] == userId) {
+                    slot = i;
+                    break;
+                }
+                if (slot < 0 && users[i] == EMPTY) {
+                    slot = i;
+                }
+            }
+            long state;
+            if (slot >= 0 && users[slot] == userId) {
+                state = states[slot];
+            } else {
+                if (slot < 0) {
+                    slot = base + ThreadLocalRandom.current().nextInt(WAYS);
+                }
+                users[slot] = userId;
+                state = newBag(generation);
+            }
+
+            int seed = (int) (state >>> 40);
+            int position = (int) state;
+            if (((int) (state >>> 32) & 0xFF) != (generation & 0xFF) || position >= size) {
+                state = newBag(generation);
+                seed = (int) (state >>> 40);
+                position = 0;
+            }
+
+            int item = permute(position, size, seed);
+            states[slot] = (state & ~0xFFFFFFFFL) | (position + 1);
+            return item;
+        }
+    }
+
+    public int capacity() {
+        return users.length;
+    }
+
+    private int bucket(long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & bucketMask;
+    }
+
+    private static long newBag(int generation) {
+        long seed = ThreadLocalRandom.current().nextInt(1 << 24);
+        return (seed << 40) | ((long) (generation & 0xFF) << 32);
+    }
+
+    // Feistel permutation over 2^bits >= size, walked until it lands below size
+    private static int permute(int value, int size, int seed) {
+        int bits = 32 - Integer.numberOfLeadingZeros(size - 1);
+        bits += bits & 1;
+        int half = bits / 2;
+        int mask = (1 << half) - 1;
+        do {
+            int left = value >>> half;
+            int right = value & mask;
+            for (int round = 0; round < ROUNDS; round++) {
+                int next = left ^ (mix(right, seed, round) & mask);
+                left = right;
+                right = next;
+            }
+            value = (left << half) | right;
+        } while (value >= size);
+        return value;
+    }
+
+    private static int mix(int half, int seed, int round) {
+        int h = (half ^ (seed * 0x9E3779B1 + round * 0x85EBCA77)) * 0xC2B2AE35;
+        h ^= h >>> 15;
+        h *= 0x27D4EB2F;
+        h ^= h >>> 13;
+        return h;
+    }
+}
@@ -1,43 +1,130 @@
 package com.example.focusflow.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Focus tips, picked at random or by relevance to what the user is working on.
+ *
+ * The corpus is read from a resource with one tip per line and indexed into a
+ * {@link TipIndex}. If the resource is a file that changes, a new index is
+ * built off to the side and swapped in; readers keep using the old one until
+ * then and never wait. Users who identify themselves get tips from a
+ * {@link TipRotation}, so they see every tip once before any repeats.
+ */
 @Service
 public class TipService {
+
+    private static final Logger log = LoggerFactory.getLogger(TipService.class);
+    
+    private static final String FALLBACK_TIP = "Practice the 'one thing' principle: Focus on one task at a time.";
+    
+    @Value("${focusflow.tips.corpus:classpath:tips.txt}")
+    private Resource corpus;
+    
+    @Value("${focusflow.tips.contextual-candidates:3}")
+    private int contextualCandidates;
     
-    private final List<String> focusTips = List.of(
-        "Try the 2-minute rule: If a task takes less than 2 minutes, do it now!",
-        "Use the Pomodoro Technique: Work in focused 25-minute intervals.",
-        "Eliminate distractions: Put your phone in another room while working.",
-        "Take regular breaks: Your brain needs time to rest and recharge.",
-        "Set clear, specific goals for each work session.",
-        "Use background music or white noise to maintain focus.",
-        "Stay hydrated and maintain good posture while working.",
-        "Practice deep breathing exercises to reduce stress and improve focus.",
-        "Time-block your schedule to dedicate specific hours to focused work.",
-        "Work during your peak energy hours when you're naturally most alert.",
-        "Use the 'eat the frog' technique: Tackle your hardest task first.",
-        "Create a dedicated workspace free from clutter and distractions.",
-        "Practice mindfulness meditation to improve your attention span.",
-        "Take short walks during breaks to refresh your mind.",
-        "Use visualization techniques to imagine completing your tasks successfully.",
-        "Set up accountability systems with friends or colleagues.",
-        "Reward yourself after completing focused work sessions.",
-        "Break large tasks into smaller, manageable chunks.",
-        "Use natural light when possible to maintain alertness.",
-        "Practice the 'one thing' principle: Focus on one task at a time."
-    );
+    @Value("${focusflow.tips.rotation.capacity:65536}")
+    private int rotationCapacity;
+    
+    private volatile Corpus corpusState = new Corpus(new TipIndex(List.of(FALLBACK_TIP)), 0);
+    private volatile long loadedModified = -1;
+    private TipRotation rotation;
+    
+    @PostConstruct
+    public void init() {
+        rotation = new TipRotation(rotationCapacity);
+        reload();
+    }
     
     public String getRandomTip() {
-        Random random = new Random();
-        return focusTips.get(random.nextInt(focusTips.size()));
+        TipIndex current = corpusState.index();
+        return current.tip(ThreadLocalRandom.current().nextInt(current.size()));
+    }
+    
+    /**
+     * The user's next tip in rotation, or any random tip without a user.
+     */
+    public String getRandomTip(Long userId) {
+        if (userId == null) {
+            return getRandomTip();
+        }
+        Corpus current = corpusState;
+        return current.index().tip(rotation.next(userId, current.index().size(), current.generation()));
     }
     
     public String getContextualTip(String context) {
-        // For now, return a random tip. In the future, this could use AI to generate contextual tips
-        return getRandomTip();
+        return getContextualTip(context, null);
+    }
+    
+    public String getContextualTip(String context, Long userId) {
+        TipIndex current = corpusState.index();
+        List<TipIndex.Match> matches = current.search(context, contextualCandidates);
+        if (matches.isEmpty()) {
+            return getRandomTip(userId);
+        }
+        // Vary between the closest few so the same context does not always get the same tip
+        return current.tip(matches.get(ThreadLocalRandom.current().nextInt(matches.size())).tip());
+    }
+    
+    @Scheduled(fixedDelayString = "${focusflow.tips.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        long modified = lastModified();
+        if (modified > 0 && modified != loadedModified) {
+            reload();
+        }
+    }
+    
+    public synchronized void reload() {
+        long modified = lastModified();
+        List<String> tips = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(corpus.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    tips.add(line);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Error loading tips from {}", corpus.getDescription(), e);
+            return;
+        }
+        if (tips.isEmpty()) {
+            log.warn("No tips found in {}, keeping the current ones", corpus.getDescription());
+            return;
+        }
+        
+        long started = System.nanoTime();
+        // A new generation restarts everyone's rotation over the new corpus
+        corpusState = new Corpus(new TipIndex(tips), corpusState.generation() + 1);
+        loadedModified = modified;
+        log.debug("Indexed {} tips in {} ms", tips.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private long lastModified() {
+        try {
+            return corpus.isFile() ? corpus.lastModified() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    private record Corpus(TipIndex index, int generation) {
     }
 }
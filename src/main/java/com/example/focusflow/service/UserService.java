@@ -3,22 +3,35 @@ package com.example.focusflow.service;
 import com.example.focusflow.entity.User;
 import com.example.focusflow.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
-import java.util.Random;
 
 @Service
 public class UserService {
     
+    private static final int CREATE_ATTEMPTS = 3;
+    
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private IdentifierAllocator identifierAllocator;
+    
     public User createAnonymousUser() {
-        String username = generateAnonymousUsername();
-        User user = new User(username);
-        user.setAnonymous(true);
-        return userRepository.save(user);
+        for (int attempt = 1; ; attempt++) {
+            User user = new User(identifierAllocator.nextAnonymousUsername());
+            user.setAnonymous(true);
+            try {
+                return userRepository.save(user);
+            } catch (DataIntegrityViolationException e) {
+                // Only possible if the allocator key changed; move on to the next name
+                if (attempt >= CREATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
     
     public Optional<User> findById(Long id) {
@@ -28,24 +41,4 @@ public class UserService {
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
-    
-    private String generateAnonymousUsername() {
-        String[] adjectives = {"Quick", "Smart", "Focus", "Zen", "Calm", "Swift", "Bright", "Cool"};
-        String[] nouns = {"Student", "Learner", "Scholar", "Mind", "Brain", "Thinker", "Focus", "User"};
-        
-        Random random = new Random();
-        String adjective = adjectives[random.nextInt(adjectives.length)];
-        String noun = nouns[random.nextInt(nouns.length)];
-        int number = random.nextInt(1000);
-        
-        String username = adjective + noun + number;
-        
-        // Ensure uniqueness
-        while (userRepository.existsByUsername(username)) {
-            number = random.nextInt(1000);
-            username = adjective + noun + number;
-        }
-        
-        return username;
-    }
 }
@@ -0,0 +1,380 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.entity.UserStats;
+import com.example.focusflow.repository.ArchivedSessionRepository;
+import com.example.focusflow.repository.SessionRepository;
+import com.example.focusflow.repository.UserStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Per-user focus totals and streaks, maintained incrementally.
+ *
+ * {@link SessionService} reports every session change together with the
+ * number of cycles that were complete before it; only cycles beyond the most
+ * ever credited to the session are added, so repeated or overlapping updates,
+ * and a cycle set back and advanced again, count once. Stats are served from
+ * memory and written back to user_stats on a fixed interval.
+ *
+ * Focus is dated by the day its session was created, for streaks and daily
+ * rollups alike, since that is the date the rebuild can read back from
+ * history. A day counts toward a streak when focus is credited to a session
+ * created that day. The rebuild job recomputes everything from session history in
+ * parallel chunks of users, using the same rules; it also repairs streaks where
+ * progress on an older session arrived after a newer day had been credited.
+ * Progress credited while a user is being rebuilt is kept aside, and whatever
+ * of it the rebuild read too early to see is replayed onto the fresh values
+ * before they are copied into the live instance.
+ */
+@Service
+public class UserStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatsService.class);
+
+    @Value("${focusflow.stats.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    @Value("${focusflow.stats.rebuild-chunk-size:100}")
+    private int rebuildChunkSize;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private ArchivedSessionRepository archivedSessionRepository;
+
+    @Autowired
+    private FocusRollupService focusRollupService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private SessionStateStore sessionStateStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Long, UserStats> stats = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // User id -> credits made while that user is being rebuilt; each list is guarded by the user's stats monitor
+    private final Map<Long, List<Credit>> rebuilding = new ConcurrentHashMap<>();
+    // Session id -> most cycles credited to it; guarded by the creator's stats monitor, dropped once the session ends
+    private final Map<Long, Integer> creditedCycles = new ConcurrentHashMap<>();
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public UserStats getStats(Long userId) {
+        UserStats current = stats.get(userId);
+        if (current == null) {
+            // Only users that actually have stats are kept in memory
+            Optional<UserStats> stored = userStatsRepository.findById(userId);
+            if (stored.isEmpty()) {
+                return new UserStats(userId);
+            }
+            UserStats raced = stats.putIfAbsent(userId, stored.get());
+            current = raced != null ? raced : stored.get();
+        }
+        synchronized (current) {
+            return new UserStats(current);
+        }
+    }
+
+    /**
+     * Credits whatever progress the session made since the given earlier state.
+     */
+    public void recordProgress(Session session, int cyclesBefore, boolean completedBefore) {
+        if (session.getCreator() == null) {
+            return;
+        }
+        int cyclesAfter = completedCycles(session.getCurrentCycle(), session.getTotalCycles(),
+                session.getStatus(), session.getIsBreak());
+        boolean newlyCompleted = !completedBefore && session.getStatus() == Session.SessionStatus.COMPLETED;
+        boolean ended = session.getStatus() == Session.SessionStatus.COMPLETED
+                || session.getStatus() == Session.SessionStatus.ENDED_EARLY;
+        Long userId = session.getCreator().getId();
+        if (cyclesAfter <= cyclesBefore && !newlyCompleted) {
+            if (ended) {
+                creditedCycles.remove(session.getId());
+            } else if (cyclesAfter < cyclesBefore) {
+                // Set back: remember what was credited so advancing again does not count it twice
+                synchronized (load(userId)) {
+                    creditedCycles.merge(session.getId(), cyclesBefore, Math::max);
+                }
+            }
+            return;
+        }
+
+        UserStats current = load(userId);
+        Credit credit;
+        synchronized (current) {
+            // Cycles up to the high-water mark were credited before the session was set back
+            Integer mark = creditedCycles.get(session.getId());
+            int credited = mark != null ? Math.max(mark, cyclesBefore) : cyclesBefore;
+            int newCycles = Math.max(0, cyclesAfter - credited);
+            if (ended) {
+                creditedCycles.remove(session.getId());
+            } else if (newCycles > 0) {
+                creditedCycles.put(session.getId(), cyclesAfter);
+            }
+            if (newCycles == 0 && !newlyCompleted) {
+                return;
+            }
+            credit = new Credit(session.getId(), credited, credited + newCycles, newlyCompleted,
+                    session.getDurationMinutes(), focusDate(session.getCreatedAt()));
+            apply(current, newCycles, newlyCompleted, credit);
+            List<Credit> pending = rebuilding.get(userId);
+            if (pending != null) {
+                pending.add(credit);
+            }
+        }
+        dirty.add(userId);
+        int newCycles = credit.cyclesAfter() - credit.cyclesBefore();
+        focusRollupService.record(userId, credit.day(), newCycles * credit.durationMinutes(),
+                newCycles, newlyCompleted ? 1 : 0);
+        leaderboardService.record(session, userId, credit.cyclesBefore(), credit.cyclesAfter());
+    }
+
+    /**
+     * Cycles of the session that count as done: all of them once completed, the
+     * current one during its break, otherwise those before the current one.
+     */
+    public static int completedCycles(int currentCycle, int totalCycles, Session.SessionStatus status, Boolean isBreak) {
+        int done;
+        if (status == Session.SessionStatus.COMPLETED) {
+            done = totalCycles;
+        } else if (Boolean.TRUE.equals(isBreak)) {
+            done = currentCycle;
+        } else {
+            done = currentCycle - 1;
+        }
+        return Math.max(0, Math.min(done, totalCycles));
+    }
+
+    @Scheduled(fixedDelayString = "${focusflow.stats.flush-interval-ms:5000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<UserStats> batch = new ArrayList<>();
+        Iterator<Long> it = dirty.iterator();
+        while (it.hasNext()) {
+            Long userId = it.next();
+            // Remove before copying so an update racing with the flush re-marks the user
+            it.remove();
+            UserStats current = stats.get(userId);
+            if (current != null) {
+                synchronized (current) {
+                    batch.add(new UserStats(current));
+                }
+            }
+        }
+        try {
+            userStatsRepository.saveAll(batch);
+        } catch (Exception e) {
+            batch.forEach(snapshot -> dirty.add(snapshot.getUserId()));
+            log.warn("Error flushing user stats", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Recomputes every user's stats from their session history, in parallel
+     * chunks of users, and replaces the incremental values. Returns the number
+     * of users rebuilt.
+     */
+    @Scheduled(cron = "${focusflow.stats.rebuild-cron:-}")
+    public int rebuildAll() {
+        // Creators of archived sessions only may have dropped out of the hot table entirely
+        Set<Long> creators = new LinkedHashSet<>(sessionRepository.findCreatorIds());
+        creators.addAll(archivedSessionRepository.findCreatorIds());
+        List<Long> userIds = new ArrayList<>(creators);
+        // Collect credits from here on, then write pending timer progress so the history read includes
+        // everything credited before this point
+        userIds.forEach(userId -> rebuilding.put(userId, new ArrayList<>()));
+        sessionStateStore.flush();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(rebuildThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stats-rebuild-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger rebuilt = new AtomicInteger();
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int start = 0; start < userIds.size(); start += rebuildChunkSize) {
+                List<Long> chunk = userIds.subList(start, Math.min(start + rebuildChunkSize, userIds.size()));
+                chunks.add(pool.submit(() -> chunk.forEach(userId -> {
+                    rebuildInPlace(userId);
+                    rebuilt.incrementAndGet();
+                })));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (Exception e) {
+            log.warn("Error rebuilding user stats", e);
+        } finally {
+            pool.shutdown();
+            userIds.forEach(rebuilding::remove);
+        }
+        flush();
+        log.debug("Rebuilt stats for {} users", rebuilt.get());
+        return rebuilt.get();
+    }
+
+    /**
+     * Stats for one user computed from scratch from their sessions.
+     */
+    public UserStats rebuild(Long userId) {
+        return rebuild(userId, new HashMap<>(), new HashSet<>());
+    }
+
+    /**
+     * Rebuilds one user whose credits are being collected, then installs the result
+     * in the live instance, so increments made meanwhile are neither lost nor doubled.
+     */
+    void rebuildInPlace(Long userId) {
+        Map<Long, Integer> countedCycles = new HashMap<>();
+        Set<Long> countedCompleted = new HashSet<>();
+        UserStats fresh = rebuild(userId, countedCycles, countedCompleted);
+
+        UserStats current = load(userId);
+        synchronized (current) {
+            List<Credit> pending = rebuilding.remove(userId);
+            if (pending != null) {
+                for (Credit credit : pending) {
+                    // Only the part of each credit beyond what the rebuild read for that session is missing
+                    int counted = countedCycles.getOrDefault(credit.sessionId(), 0);
+                    int missedCycles = Math.max(0, credit.cyclesAfter() - Math.max(credit.cyclesBefore(), counted));
+                    boolean missedCompletion = credit.completed() && !countedCompleted.contains(credit.sessionId());
+                    apply(fresh, missedCycles, missedCompletion, credit);
+                }
+            }
+            // Marks follow what the fresh values include, so later progress is credited on top of them
+            countedCycles.forEach((sessionId, counted) -> creditedCycles.computeIfPresent(sessionId, (id, mark) -> counted));
+            if (pending != null) {
+                pending.forEach(credit -> creditedCycles.computeIfPresent(credit.sessionId(),
+                        (id, mark) -> Math.max(mark, credit.cyclesAfter())));
+            }
+            current.copyFrom(fresh);
+        }
+        dirty.add(userId);
+    }
+
+    // Also records, per session, the cycles and completion the rebuild counted
+    private UserStats rebuild(Long userId, Map<Long, Integer> countedCycles, Set<Long> countedCompleted) {
+        UserStats fresh = new UserStats(userId);
+        TreeSet<LocalDate> focusDays = new TreeSet<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<SessionRepository.SessionSummary> sessions = Stream.concat(
+                    sessionRepository.streamByCreatorId(userId), archivedSessionRepository.streamByCreatorId(userId))) {
+                sessions.forEach(session -> {
+                    int cycles = completedCycles(session.getCurrentCycle(), session.getTotalCycles(),
+                            session.getStatus(), session.getIsBreak());
+                    countedCycles.put(session.getId(), cycles);
+                    if (cycles > 0) {
+                        fresh.setCompletedCycles(fresh.getCompletedCycles() + cycles);
+                        fresh.setTotalFocusMinutes(fresh.getTotalFocusMinutes() + cycles * session.getDurationMinutes());
+                        focusDays.add(focusDate(session.getCreatedAt()));
+                    }
+                    if (session.getStatus() == Session.SessionStatus.COMPLETED) {
+                        fresh.setCompletedSessions(fresh.getCompletedSessions() + 1);
+                        countedCompleted.add(session.getId());
+                    }
+                });
+            }
+        });
+        // Replay the days in order so streaks follow exactly the incremental rules
+        focusDays.forEach(day -> extendStreak(fresh, day));
+        return fresh;
+    }
+
+    private UserStats load(Long userId) {
+        UserStats current = stats.get(userId);
+        if (current != null) {
+            return current;
+        }
+        UserStats loaded = userStatsRepository.findById(userId).orElseGet(() -> new UserStats(userId));
+        current = stats.putIfAbsent(userId, loaded);
+        return current != null ? current : loaded;
+    }
+
+    // Caller holds the target's monitor, or owns it outright
+    private static void apply(UserStats target, int newCycles, boolean newlyCompleted, Credit credit) {
+        if (newCycles > 0) {
+            target.setCompletedCycles(target.getCompletedCycles() + newCycles);
+            target.setTotalFocusMinutes(target.getTotalFocusMinutes() + newCycles * credit.durationMinutes());
+            extendStreak(target, credit.day());
+        }
+        if (newlyCompleted) {
+            target.setCompletedSessions(target.getCompletedSessions() + 1);
+        }
+        target.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private static void extendStreak(UserStats current, LocalDate day) {
+        LocalDate last = current.getLastFocusDate();
+        if (last != null && !day.isAfter(last)) {
+            return;
+        }
+        if (last != null && day.equals(last.plusDays(1))) {
+            current.setCurrentStreakDays(current.getCurrentStreakDays() + 1);
+        } else {
+            current.setCurrentStreakDays(1);
+        }
+        current.setLongestStreakDays(Math.max(current.getLongestStreakDays(), current.getCurrentStreakDays()));
+        current.setLastFocusDate(day);
+    }
+
+    private static LocalDate focusDate(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt.toLocalDate() : LocalDate.now();
+    }
+
+    // Progress credited to one session by one update
+    private record Credit(Long sessionId, int cyclesBefore, int cyclesAfter, boolean completed,
+                          double durationMinutes, LocalDate day) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.focusflow.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryPayloadInterceptorTest {
+
+    private static final MessageChannel CHANNEL = (message, timeout) -> true;
+
+    private BinaryPayloadInterceptor interceptor;
+
+    @BeforeEach
+    void createInterceptor() {
+        interceptor = new BinaryPayloadInterceptor();
+    }
+
+    @Test
+    void payloadIsEncodedOncePerMessageNotPerSubscriber() throws Exception {
+        subscribe("s1", "sub-1", true);
+        subscribe("s2", "sub-1", true);
+        subscribe("s3", "sub-1", false);
+        byte[] json = "{\"seq\":1,\"status\":\"ACTIVE\"}".getBytes(StandardCharsets.UTF_8);
+
+        Message<?> first = interceptor.preSend(delivery("s1", "sub-1", json), CHANNEL);
+        Message<?> second = interceptor.preSend(delivery("s2", "sub-1", json), CHANNEL);
+        Message<?> plain = interceptor.preSend(delivery("s3", "sub-1", json), CHANNEL);
+
+        assertThat(first.getPayload()).isEqualTo(interceptor.jsonToCbor(json));
+        assertThat(second.getPayload()).isSameAs(first.getPayload());
+        assertThat(plain.getPayload()).isSameAs(json);
+    }
+
+    @Test
+    void distinctPayloadsAreEncodedSeparately() {
+        subscribe("s1", "sub-1", true);
+        byte[] a = "{\"seq\":1}".getBytes(StandardCharsets.UTF_8);
+        byte[] b = "{\"seq\":1}".getBytes(StandardCharsets.UTF_8);
+
+        Object encodedA = interceptor.preSend(delivery("s1", "sub-1", a), CHANNEL).getPayload();
+        Object encodedB = interceptor.preSend(delivery("s1", "sub-1", b), CHANNEL).getPayload();
+
+        assertThat(encodedB).isEqualTo(encodedA).isNotSameAs(encodedA);
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, boolean cbor) {
+        Map<String, Object> attributes = new HashMap<>();
+        interceptor.nativeEndpointMarker().beforeHandshake(null, null, null, attributes);
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination("/topic/session/ABC123");
+        accessor.setSessionAttributes(attributes);
+        if (cbor) {
+            accessor.setNativeHeader(BinaryPayloadInterceptor.FORMAT_HEADER, BinaryPayloadInterceptor.CBOR);
+        }
+        accessor.setLeaveMutable(true);
+        interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), CHANNEL);
+    }
+
+    private static Message<byte[]> delivery(String sessionId, String subscriptionId, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination("/topic/session/ABC123");
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.ActivityLog;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ActivityLogRetentionTest {
+
+    @Autowired
+    private ActivityLogRetention activityLogRetention;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = new User("retention-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@focusflow.app");
+        user = userRepository.save(user);
+        // Small batches so a month takes several delete transactions
+        ReflectionTestUtils.setField(activityLogRetention, "batchSize", 7);
+    }
+
+    @AfterEach
+    void restoreBatchSize() {
+        ReflectionTestUtils.setField(activityLogRetention, "batchSize", 5000);
+    }
+
+    @Test
+    void expiredMonthIsSummarizedAndDroppedWhileRecentEventsStay() {
+        LocalDateTime expired = LocalDateTime.now().minusMonths(7).withDayOfMonth(1).withHour(12);
+        int month = ActivityLog.partitionOf(expired);
+        seed(expired, "TIMER_STARTED", 25);
+        seed(expired.plusDays(3), "TIMER_PAUSED", 10);
+        seed(LocalDateTime.now(), "TIMER_STARTED", 5);
+
+        activityLogRetention.compactExpiredPartitions();
+
+        assertThat(rawEvents(month)).isZero();
+        assertThat(rawEvents(ActivityLog.partitionOf(LocalDateTime.now()))).isEqualTo(5);
+        assertThat(summaries(month)).containsOnly(Map.entry("TIMER_STARTED", 25L), Map.entry("TIMER_PAUSED", 10L));
+        Map<String, Object> partition = jdbcTemplate.queryForMap(
+            "SELECT compacted_at, dropped_at FROM activity_log_partitions WHERE partition_month = ?", month);
+        assertThat(partition.get("compacted_at")).isNotNull();
+        assertThat(partition.get("dropped_at")).isNotNull();
+
+        // A later run finds nothing left to do for that month
+        activityLogRetention.compactExpiredPartitions();
+        assertThat(summaries(month)).containsOnly(Map.entry("TIMER_STARTED", 25L), Map.entry("TIMER_PAUSED", 10L));
+    }
+
+    @Test
+    void runInterruptedAfterCompactionResumesWithoutSummarizingTwice() {
+        LocalDateTime expired = LocalDateTime.now().minusMonths(9).withDayOfMonth(1).withHour(12);
+        int month = ActivityLog.partitionOf(expired);
+        seed(expired, "SESSION_STARTED", 12);
+
+        // The month was summarized, then the job stopped before deleting any raw rows
+        ReflectionTestUtils.invokeMethod(activityLogRetention, "compact", month);
+        assertThat(rawEvents(month)).isEqualTo(12);
+
+        activityLogRetention.compactExpiredPartitions();
+
+        assertThat(rawEvents(month)).isZero();
+        assertThat(summaries(month)).containsOnly(Map.entry("SESSION_STARTED", 12L));
+    }
+
+    private void seed(LocalDateTime createdAt, String type, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime at = createdAt.plusMinutes(i);
+            rows.add(new Object[] { user.getId(), type, "Event " + i, Timestamp.valueOf(at), ActivityLog.partitionOf(at) });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO activity_logs (user_id, type, message, created_at, partition_month) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    private long rawEvents(int month) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM activity_logs WHERE user_id = ? AND partition_month = ?",
+            Long.class, user.getId(), month);
+    }
+
+    private Map<String, Long> summaries(int month) {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT type, event_count FROM activity_summaries WHERE user_id = ? AND partition_month = ?",
+            rs -> {
+                // A duplicate summary row would show up as a doubled count
+                counts.merge(rs.getString("type"), rs.getLong("event_count"), Long::sum);
+            }, user.getId(), month);
+        return counts;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.FocusFlowApplication;
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.UserRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application contexts in one JVM sharing a database and a loopback cluster,
+ * standing in for two nodes behind a load balancer.
+ */
+class ClusterRelayLoopbackTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static final List<Published> publishedOnB = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a", "create-drop");
+        // The second node reuses the schema the first one created
+        nodeB = startNode("node-b", "none");
+        nodeB.getBean("brokerChannel", AbstractSubscribableChannel.class).addInterceptor(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                if (destination != null && message.getPayload() instanceof byte[] payload) {
+                    publishedOnB.add(new Published(destination, payload));
+                }
+                return message;
+            }
+        });
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void stateAndEventsReachSubscribersOnThePeer() throws Exception {
+        User user = new User("relay-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@focusflow.app");
+        user = nodeA.getBean(UserRepository.class).save(user);
+        Session session = nodeA.getBean(SessionService.class).createSession(user, 25, 5, 15, 4);
+        String topic = SessionBroadcaster.TOPIC_PREFIX + session.getSessionCode();
+
+        // Both nodes have subscribers to the session
+        nodeA.getBean(ClusterRelay.class).addInterest(session.getSessionCode(), "test");
+        nodeB.getBean(ClusterRelay.class).addInterest(session.getSessionCode(), "test");
+
+        // Local change on B, then a relayed change from A
+        nodeB.getBean(SessionService.class).updateSessionStatus(session.getId(), Session.SessionStatus.ACTIVE);
+        nodeA.getBean(SessionService.class).updateTimerState(session.getId(), 1200, false, false);
+        nodeA.getBean(SessionBroadcaster.class).sendEvent(session.getSessionCode(), "user-joined", Map.of("user", "alice"));
+
+        List<Map<String, Object>> states = payloads(topic);
+        assertThat(states).hasSize(2);
+        assertThat(states.get(0)).containsEntry("full", true).containsEntry("status", "ACTIVE");
+        // The relayed delta compares equal on status and carries only what A changed
+        assertThat(states.get(1)).containsEntry("seq", 2).containsEntry("currentTimeLeft", 1200).doesNotContainKey("status");
+
+        assertThat(payloads(topic + "/user-joined")).containsExactly(Map.of("user", "alice"));
+    }
+
+    @Test
+    void timerMovesOnlyToThePeerThatStartsIt() {
+        User user = new User("relay-timer-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@focusflow.app");
+        user = nodeA.getBean(UserRepository.class).save(user);
+        Session session = nodeA.getBean(SessionService.class).createSession(user, 25, 5, 15, 4);
+        SessionTimerEngine engineA = nodeA.getBean(SessionTimerEngine.class);
+        SessionTimerEngine engineB = nodeB.getBean(SessionTimerEngine.class);
+        nodeB.getBean(ClusterRelay.class).addInterest(session.getSessionCode(), "test");
+
+        nodeA.getBean(SessionService.class).updateSessionStatus(session.getId(), Session.SessionStatus.ACTIVE);
+        nodeA.getBean(SessionService.class).updateTimerState(session.getId(), 600, true, false);
+        nodeA.getBean(SessionStateStore.class).flush();
+        assertThat(engineA.isTracking(session.getId())).isTrue();
+
+        // A cycle change made on the peer leaves the clock where it is
+        nodeB.getBean(SessionService.class).updateCurrentCycle(session.getId(), 2);
+        assertThat(engineA.isTracking(session.getId())).isTrue();
+        assertThat(engineA.remainingSeconds(session.getId())).isBetween(590, 600);
+        assertThat(engineB.isTracking(session.getId())).isFalse();
+
+        // Starting the timer on the peer hands the clock over
+        nodeB.getBean(SessionService.class).updateTimerState(session.getId(), 300, true, false);
+        assertThat(engineB.isTracking(session.getId())).isTrue();
+        assertThat(engineA.isTracking(session.getId())).isFalse();
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, String ddlAuto) {
+        return new SpringApplicationBuilder(FocusFlowApplication.class)
+            .profiles("test")
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:relay-test;DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "focusflow.cluster.mode=loopback",
+                "focusflow.cluster.loopback.name=relay-test",
+                "focusflow.cluster.node-id=" + nodeId,
+                "focusflow.broadcast.coalesce-window-ms=0")
+            .run();
+    }
+
+    private static List<Map<String, Object>> payloads(String destination) throws Exception {
+        List<Map<String, Object>> payloads = new CopyOnWriteArrayList<>();
+        for (Published published : publishedOnB) {
+            if (published.destination().equals(destination)) {
+                payloads.add(MAPPER.readValue(published.payload(), new TypeReference<Map<String, Object>>() { }));
+            }
+        }
+        return payloads;
+    }
+
+    private record Published(String destination, byte[] payload) {
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.ActivityLog;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds tens of thousands of rows rather than millions: an in-memory database
+ * holds every row on the same heap, so a heap ceiling would measure the
+ * database as much as the export. Instead the tests check that rows are
+ * fetched in batches and written while later ones are still being read.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportServiceTest {
+
+    private static final int SESSIONS = 20_000;
+    private static final int ARCHIVED = 1_000;
+    private static final int EVENTS = 20_000;
+
+    // SQL -> JDBC fetch size it was run with
+    private static final Map<String, Integer> FETCH_SIZES = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    @BeforeEach
+    void seedAccount() {
+        user = new User("export-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@focusflow.app");
+        user = userRepository.save(user);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> sessions = new ArrayList<>(SESSIONS);
+        List<Object[]> archived = new ArrayList<>(ARCHIVED);
+        List<Object[]> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions.add(new Object[] { "E" + user.getId() + "-" + i, user.getId(), Timestamp.valueOf(now.minusMinutes(i)) });
+        }
+        // Archived sessions fall between hot ones rather than all after them
+        for (int i = 0; i < ARCHIVED; i++) {
+            archived.add(new Object[] { 1_000_000_000L * user.getId() + i, "A" + user.getId() + "-" + i, user.getId(),
+                Timestamp.valueOf(now.minusMinutes(20L * i).minusSeconds(30)), Timestamp.valueOf(now) });
+        }
+        for (int i = 0; i < EVENTS; i++) {
+            LocalDateTime createdAt = now.minusMinutes(EVENTS - i);
+            events.add(new Object[] { user.getId(), "Event " + i, Timestamp.valueOf(createdAt), ActivityLog.partitionOf(createdAt) });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO sessions (session_code, creator_id, duration_minutes, break_minutes, long_break_minutes, " +
+            "total_cycles, current_cycle, status, is_running, is_break, version, created_at) " +
+            "VALUES (?, ?, 25, 5, 15, 4, 4, 'COMPLETED', FALSE, FALSE, 0, ?)", sessions);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO archived_sessions (id, session_code, creator_id, duration_minutes, break_minutes, long_break_minutes, " +
+            "total_cycles, current_cycle, status, is_running, is_break, created_at, archived_at) " +
+            "VALUES (?, ?, ?, 25, 5, 15, 4, 4, 'COMPLETED', FALSE, FALSE, ?, ?)", archived);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO activity_logs (user_id, type, message, created_at, partition_month) VALUES (?, 'TIMER_STARTED', ?, ?, ?)",
+            events);
+    }
+
+    @Test
+    void sessionsAreWrittenAsTheyAreRead() throws Exception {
+        FETCH_SIZES.clear();
+        // The reader consumes lines while the export is still running; the pipe holds only a few KB
+        PipedInputStream in = new PipedInputStream(16 * 1024);
+        PipedOutputStream out = new PipedOutputStream(in);
+        CompletableFuture<Long> export = CompletableFuture.supplyAsync(() -> {
+            try (out) {
+                return exportService.exportSessions(user, out);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String first = reader.readLine();
+            // The first row arrived through a 16 KB pipe before the export finished writing the rest
+            assertThat(export).isNotDone();
+            lines.add(first);
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lines.add(line);
+            }
+        }
+
+        assertThat(export.get(60, TimeUnit.SECONDS)).isEqualTo(SESSIONS + ARCHIVED);
+        assertThat(lines).hasSize(SESSIONS + ARCHIVED);
+        JsonNode newest = objectMapper.readTree(lines.get(0));
+        assertThat(newest.get("sessionCode").asText()).isEqualTo("E" + user.getId() + "-0");
+        assertThat(objectMapper.readTree(lines.get(1)).get("sessionCode").asText()).isEqualTo("A" + user.getId() + "-0");
+        assertThat(objectMapper.readTree(lines.get(SESSIONS + ARCHIVED - 1)).get("sessionCode").asText())
+            .isEqualTo("E" + user.getId() + "-" + (SESSIONS - 1));
+
+        // Newest first across hot and archived sessions alike
+        LocalDateTime previous = null;
+        for (String line : lines) {
+            LocalDateTime createdAt = LocalDateTime.parse(objectMapper.readTree(line).get("createdAt").asText());
+            if (previous != null) {
+                assertThat(createdAt).isBeforeOrEqualTo(previous);
+            }
+            previous = createdAt;
+        }
+
+        // Both streams were read a bounded batch at a time
+        List<Integer> exportFetchSizes = FETCH_SIZES.entrySet().stream()
+            .filter(entry -> entry.getKey().contains("creator_id"))
+            .map(Map.Entry::getValue)
+            .toList();
+        assertThat(exportFetchSizes).containsExactly(500, 500);
+    }
+
+    @Test
+    void activityIsWrittenInIncrementsNotOneBuffer() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        long rows = exportService.exportActivity(user, out);
+
+        assertThat(rows).isEqualTo(EVENTS);
+        assertThat(out.lines).isEqualTo(EVENTS);
+        // Jackson flushes its small buffer as it goes; a fully buffered export would be one large write
+        assertThat(out.writes).isGreaterThan(10);
+        assertThat(out.largestWrite).isLessThanOrEqualTo(64 * 1024);
+    }
+
+    @TestConfiguration
+    static class FetchSizeRecording {
+
+        @Bean
+        static BeanPostProcessor fetchSizeRecorder() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        @NonNull
+                        public Connection getConnection() throws SQLException {
+                            return recording(super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        private static Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                        String sql = (String) args[0];
+                        return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+                            (statementProxy, statementMethod, statementArgs) -> {
+                                if (statementMethod.getName().equals("setFetchSize")) {
+                                    FETCH_SIZES.put(sql, (Integer) statementArgs[0]);
+                                }
+                                return invoke(statement, statementMethod, statementArgs);
+                            });
+                    }
+                    return result;
+                });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long lines;
+        private int writes;
+        private int largestWrite;
+
+        @Override
+        public void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writes++;
+            largestWrite = Math.max(largestWrite, len);
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.focusflow.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentifierAllocatorTest {
+
+    private static final int COUNT = 5_000_000;
+    private static final String CODE_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final String[] ADJECTIVES = {"Quick", "Smart", "Focus", "Zen", "Calm", "Swift", "Bright", "Cool"};
+    private static final String[] NOUNS = {"Student", "Learner", "Scholar", "Mind", "Brain", "Thinker", "Focus", "User"};
+
+    private IdentifierAllocator allocator;
+
+    @BeforeEach
+    void createAllocator() {
+        allocator = new IdentifierAllocator();
+        ReflectionTestUtils.setField(allocator, "key", "focusflow");
+        allocator.init();
+    }
+
+    @Test
+    void millionsOfSessionCodesNeverCollide() {
+        // Codes are compared by their base-36 value; a sorted long[] is far smaller than a set of strings
+        long[] values = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            String code = allocator.encodeSessionCode(i);
+            if (code.length() != 6) {
+                throw new AssertionError("Unexpected code: " + code);
+            }
+            long value = 0;
+            for (char c : code.toCharArray()) {
+                int digit = CODE_ALPHABET.indexOf(c);
+                if (digit < 0) {
+                    throw new AssertionError("Unexpected code: " + code);
+                }
+                value = value * CODE_ALPHABET.length() + digit;
+            }
+            values[i] = value;
+        }
+
+        assertThat(duplicates(values)).isZero();
+    }
+
+    @Test
+    void millionsOfUsernamesNeverCollideWithEachOtherOrLegacyNames() {
+        // Adjective, noun and number decode back to the permuted counter value
+        long[] values = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            String name = allocator.encodeUsername(i);
+            int adjective = indexOfPrefix(ADJECTIVES, name);
+            name = name.substring(ADJECTIVES[adjective].length());
+            int noun = indexOfPrefix(NOUNS, name);
+            long number = Long.parseLong(name.substring(NOUNS[noun].length()));
+            // Older random names ended in 0-999
+            if (number < 1000) {
+                throw new AssertionError("Number in the legacy range: " + name);
+            }
+            values[i] = (number * NOUNS.length + noun) * ADJECTIVES.length + adjective;
+        }
+
+        assertThat(duplicates(values)).isZero();
+    }
+
+    @Test
+    void sameKeyGivesSameCodes() {
+        IdentifierAllocator other = new IdentifierAllocator();
+        ReflectionTestUtils.setField(other, "key", "focusflow");
+        other.init();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(other.encodeSessionCode(i)).isEqualTo(allocator.encodeSessionCode(i));
+        }
+    }
+
+    private static int duplicates(long[] values) {
+        Arrays.sort(values);
+        int duplicates = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] == values[i - 1]) {
+                duplicates++;
+            }
+        }
+        return duplicates;
+    }
+
+    private static int indexOfPrefix(String[] words, String name) {
+        for (int i = 0; i < words.length; i++) {
+            if (name.startsWith(words[i])) {
+                return i;
+            }
+        }
+        throw new AssertionError("Unexpected name part: " + name);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdentityCacheTest {
+
+    @Autowired
+    private IdentityCache identityCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repeatedLookupsOfAKnownUserAreHits() {
+        User user = new User("identity-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@focusflow.app");
+        user = userRepository.save(user);
+        identityCache.evict(user.getId());
+
+        double hitsBefore = requests("hit");
+        double missesBefore = requests("miss");
+        assertThat(identityCache.findById(user.getId())).isPresent();
+        assertThat(requests("miss") - missesBefore).isEqualTo(1);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(identityCache.findById(user.getId()).orElseThrow().username()).isEqualTo(user.getUsername());
+        }
+        assertThat(identityCache.findAllById(List.of(user.getId()))).containsKey(user.getId());
+        assertThat(requests("hit") - hitsBefore).isEqualTo(101);
+        assertThat(requests("miss") - missesBefore).isEqualTo(1);
+    }
+
+    @Test
+    void knownCallersResolveWithoutTouchingTheDatabase() {
+        OAuth2User principal = principal();
+        Long id = identityCache.resolve(principal).id();
+
+        double hitsBefore = requests("hit");
+        double missesBefore = requests("miss");
+        for (int i = 0; i < 100; i++) {
+            assertThat(identityCache.resolve(principal).id()).isEqualTo(id);
+        }
+        assertThat(requests("hit") - hitsBefore).isEqualTo(100);
+        assertThat(requests("miss") - missesBefore).isZero();
+    }
+
+    @Test
+    void unknownCallersAreRememberedUntilTheirUserIsCreated() {
+        OAuth2User principal = principal();
+
+        double hitsBefore = requests("hit");
+        double missesBefore = requests("miss");
+        for (int i = 0; i < 100; i++) {
+            assertThat(identityCache.find(principal)).isEmpty();
+        }
+        // One miss each for the subject and the email, then the database is left alone
+        assertThat(requests("miss") - missesBefore).isEqualTo(2);
+        assertThat(requests("hit") - hitsBefore).isEqualTo(198);
+
+        // Creating the user is not held up by the unknown entries, and clears them
+        Long id = identityCache.resolve(principal).id();
+        assertThat(identityCache.find(principal).orElseThrow().id()).isEqualTo(id);
+    }
+
+    @Test
+    void concurrentFirstLoginsCreateOneUser() throws Exception {
+        OAuth2User principal = principal();
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Long>> callers = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return identityCache.resolve(principal).id();
+            }));
+        }
+        start.countDown();
+
+        Long first = callers.get(0).get(30, TimeUnit.SECONDS);
+        for (CompletableFuture<Long> caller : callers) {
+            assertThat(caller.get(30, TimeUnit.SECONDS)).isEqualTo(first);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE google_id = ?", Long.class,
+            principal.getAttributes().get("sub"))).isEqualTo(1);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("focusflow.identity.cache.requests").tag("result", result).functionCounter().count();
+    }
+
+    private static OAuth2User principal() {
+        String subject = UUID.randomUUID().toString();
+        return new DefaultOAuth2User(List.of(), Map.of("sub", subject, "email", subject + "@focusflow.app"), "sub");
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.focusflow.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PresenceRegistryTest {
+
+    private static final int SESSIONS = 50;
+    private static final int CONNECTIONS = 40_000;
+
+    private final Map<String, Map<String, Object>> sentLocally = new HashMap<>();
+    private final Map<String, Map<String, Object>> relayed = new HashMap<>();
+
+    private PresenceRegistry registry;
+
+    @BeforeEach
+    void createRegistry() {
+        SessionBroadcaster broadcaster = new SessionBroadcaster() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void sendLocalEvent(String sessionCode, String event, Object payload) {
+                sentLocally.put(sessionCode, (Map<String, Object>) payload);
+            }
+        };
+        ClusterRelay relay = new ClusterRelay() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public String getNodeId() {
+                return "node-a";
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void publishEvent(String sessionCode, String event, Object payload) {
+                relayed.put(sessionCode, (Map<String, Object>) payload);
+            }
+        };
+        registry = new PresenceRegistry();
+        ReflectionTestUtils.setField(registry, "timeoutSeconds", 90L);
+        ReflectionTestUtils.setField(registry, "sessionBroadcaster", broadcaster);
+        ReflectionTestUtils.setField(registry, "clusterRelay", relay);
+    }
+
+    @Test
+    void tensOfThousandsOfJoinsArePublishedAsOneNetMessagePerSession() {
+        for (int i = 0; i < CONNECTIONS; i++) {
+            subscribe(i);
+        }
+        // A tenth of each session leaves again within the same interval and never shows up
+        for (int i = 0; i < CONNECTIONS; i++) {
+            if (i / SESSIONS % 10 != 0) {
+                continue;
+            }
+            registry.onDisconnect(new SessionDisconnectEvent(this, MessageBuilder.withPayload(new byte[0]).build(),
+                connectionId(i), CloseStatus.NORMAL));
+        }
+
+        registry.publishChanges();
+
+        int perSession = CONNECTIONS / SESSIONS * 9 / 10;
+        assertThat(sentLocally).hasSize(SESSIONS);
+        assertThat(relayed).hasSize(SESSIONS);
+        for (int session = 0; session < SESSIONS; session++) {
+            assertThat(sentLocally.get(sessionCode(session))).containsEntry("count", perSession);
+            assertThat(names(sentLocally.get(sessionCode(session)), "joined")).hasSize(perSession);
+            assertThat(names(sentLocally.get(sessionCode(session)), "left")).isEmpty();
+            assertThat(relayed.get(sessionCode(session))).containsEntry("node", "node-a").containsEntry("count", perSession);
+        }
+
+        // Nothing changed since, so nothing is sent
+        sentLocally.clear();
+        registry.publishChanges();
+        assertThat(sentLocally).isEmpty();
+    }
+
+    @Test
+    void expiredConnectionsThatAreStillOpenRejoinOnTheirNextHeartbeat() {
+        for (int i = 0; i < CONNECTIONS; i++) {
+            subscribe(i);
+        }
+        registry.publishChanges();
+
+        // Every participant goes silent for longer than the timeout
+        ReflectionTestUtils.setField(registry, "timeoutSeconds", -1L);
+        registry.expireSilentParticipants();
+        ReflectionTestUtils.setField(registry, "timeoutSeconds", 90L);
+        registry.publishChanges();
+        for (int session = 0; session < SESSIONS; session++) {
+            assertThat(registry.getParticipantCount(sessionCode(session))).isZero();
+            assertThat(names(sentLocally.get(sessionCode(session)), "left")).hasSize(CONNECTIONS / SESSIONS);
+        }
+
+        // Half of them were only slow and are still connected
+        for (int i = 0; i < CONNECTIONS; i++) {
+            if (i / SESSIONS % 2 == 0) {
+                registry.heartbeat(connectionId(i));
+            }
+        }
+        registry.publishChanges();
+        for (int session = 0; session < SESSIONS; session++) {
+            assertThat(registry.getParticipantCount(sessionCode(session))).isEqualTo(CONNECTIONS / SESSIONS / 2);
+            assertThat(names(sentLocally.get(sessionCode(session)), "joined")).hasSize(CONNECTIONS / SESSIONS / 2);
+        }
+    }
+
+    @Test
+    void countsFromPeersAddToTheLocalCount() {
+        for (int i = 0; i < 3 * SESSIONS; i += SESSIONS) {
+            subscribe(i);
+        }
+        registry.publishChanges();
+        String sessionCode = sessionCode(0);
+        assertThat(sentLocally.get(sessionCode)).containsEntry("count", 3);
+
+        registry.onPeerPresence(sessionCode, peerUpdate("node-b", 5, List.of("bob"), List.of()));
+        assertThat(registry.getParticipantCount(sessionCode)).isEqualTo(8);
+        assertThat(registry.getLocalParticipantCount(sessionCode)).isEqualTo(3);
+        assertThat(sentLocally.get(sessionCode)).containsEntry("count", 8);
+        assertThat(names(sentLocally.get(sessionCode), "joined")).containsExactly("bob");
+
+        // A repeated count that changes nothing is not sent again
+        sentLocally.clear();
+        registry.onPeerPresence(sessionCode, peerUpdate("node-b", 5, List.of(), List.of()));
+        assertThat(sentLocally).isEmpty();
+
+        // Our own count is relayed as ours alone
+        subscribe(3 * SESSIONS);
+        registry.publishChanges();
+        assertThat(sentLocally.get(sessionCode)).containsEntry("count", 9);
+        assertThat(relayed.get(sessionCode)).containsEntry("count", 4);
+
+        registry.onPeerPresence(sessionCode, peerUpdate("node-b", 0, List.of(), List.of("bob")));
+        assertThat(registry.getParticipantCount(sessionCode)).isEqualTo(4);
+        assertThat(sentLocally.get(sessionCode)).containsEntry("count", 4);
+    }
+
+    @Test
+    void peersThatStopRepeatingTheirCountAreDropped() {
+        String sessionCode = sessionCode(0);
+        registry.onPeerPresence(sessionCode, peerUpdate("node-b", 5, List.of(), List.of()));
+        assertThat(registry.getParticipantCount(sessionCode)).isEqualTo(5);
+
+        ReflectionTestUtils.setField(registry, "timeoutSeconds", -1L);
+        assertThat(registry.getParticipantCount(sessionCode)).isZero();
+        registry.expireSilentParticipants();
+        ReflectionTestUtils.setField(registry, "timeoutSeconds", 90L);
+        assertThat(registry.getParticipantCount(sessionCode)).isZero();
+    }
+
+    private void subscribe(int connection) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(connectionId(connection));
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(SessionBroadcaster.TOPIC_PREFIX + sessionCode(connection % SESSIONS));
+        accessor.setNativeHeader(PresenceRegistry.USERNAME_HEADER, "user-" + connection);
+        registry.onSubscribe(new SessionSubscribeEvent(this,
+            MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+    }
+
+    private static Map<String, Object> peerUpdate(String node, int count, List<String> joined, List<String> left) {
+        Map<String, Object> update = new HashMap<>();
+        update.put("node", node);
+        update.put("count", count);
+        update.put("joined", joined);
+        update.put("left", left);
+        return update;
+    }
+
+    private static List<Object> names(Map<String, Object> presence, String key) {
+        return new ArrayList<>((Collection<?>) presence.get(key));
+    }
+
+    private static String connectionId(int connection) {
+        return "conn-" + connection;
+    }
+
+    private static String sessionCode(int session) {
+        return "S" + session;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.ActivityLog;
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.SessionRepository;
+import com.example.focusflow.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionArchiveTest {
+
+    private static final int OLD_FINISHED = 10;
+
+    @Autowired
+    private SessionArchive sessionArchive;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private String prefix;
+
+    @BeforeEach
+    void seedSessions() {
+        user = new User("archive-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@focusflow.app");
+        user = userRepository.save(user);
+        prefix = "A" + user.getId() + "-";
+        // Small batches so the run takes several transactions
+        ReflectionTestUtils.setField(sessionArchive, "batchSize", 3);
+
+        LocalDateTime old = LocalDateTime.now().minusDays(200).truncatedTo(ChronoUnit.SECONDS);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < OLD_FINISHED; i++) {
+            String status = i % 2 == 0 ? "COMPLETED" : "ENDED_EARLY";
+            rows.add(row(prefix + i, status, old.minusHours(i), i + 1));
+        }
+        // Old but never finished, and finished but recent: both stay hot
+        rows.add(row(prefix + "paused", "PAUSED", old, 2));
+        rows.add(row(prefix + "recent", "COMPLETED", LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS), 4));
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO sessions (session_code, creator_id, duration_minutes, break_minutes, long_break_minutes, " +
+            "total_cycles, current_cycle, status, is_running, is_break, current_time_left, version, created_at, " +
+            "started_at, completed_at) VALUES (?, ?, 25, 5, 15, 4, ?, ?, FALSE, FALSE, 0, 0, ?, ?, ?)", rows);
+    }
+
+    @AfterEach
+    void restoreBatchSize() {
+        ReflectionTestUtils.setField(sessionArchive, "batchSize", 500);
+    }
+
+    @Test
+    void archivedSessionsReadBackAsTheyWereStored() {
+        List<Session> before = new ArrayList<>();
+        for (int i = 0; i < OLD_FINISHED; i++) {
+            before.add(sessionService.findBySessionCode(prefix + i).orElseThrow());
+        }
+        Long keptEventSession = before.get(0).getId();
+        jdbcTemplate.update("INSERT INTO activity_logs (user_id, session_id, type, message, created_at, partition_month) " +
+            "VALUES (?, ?, 'SESSION_COMPLETED', 'Straggler', ?, ?)", user.getId(), keptEventSession,
+            Timestamp.valueOf(LocalDateTime.now()), ActivityLog.partitionOf(LocalDateTime.now()));
+
+        sessionArchive.archiveFinishedSessions();
+
+        assertThat(count("SELECT COUNT(*) FROM sessions WHERE creator_id = ?")).isEqualTo(2);
+        assertThat(count("SELECT COUNT(*) FROM archived_sessions WHERE creator_id = ?")).isEqualTo(OLD_FINISHED);
+        for (Session original : before) {
+            Session byCode = sessionService.findBySessionCode(original.getSessionCode()).orElseThrow();
+            Session byId = sessionService.findById(original.getId()).orElseThrow();
+            assertSameSession(byCode, original);
+            assertSameSession(byId, original);
+            assertThat(byId.getCreator().getUsername()).isEqualTo(user.getUsername());
+        }
+        // Events outlive their archived session, detached from it
+        assertThat(count("SELECT COUNT(*) FROM activity_logs WHERE user_id = ? AND session_id IS NULL")).isEqualTo(1);
+
+        // History spans both tables without gaps or repeats
+        List<SessionRepository.SessionSummary> history = sessionService.findHistoryPage(user, null, null, null, null,
+            null, 50);
+        assertThat(history).hasSize(OLD_FINISHED + 2)
+            .extracting(SessionRepository.SessionSummary::getId).doesNotHaveDuplicates();
+
+        // A second run has nothing left to move
+        sessionArchive.archiveFinishedSessions();
+        assertThat(count("SELECT COUNT(*) FROM archived_sessions WHERE creator_id = ?")).isEqualTo(OLD_FINISHED);
+    }
+
+    @Test
+    void archivedSessionsAreReadOnly() {
+        Long id = sessionService.findBySessionCode(prefix + 0).orElseThrow().getId();
+
+        sessionArchive.archiveFinishedSessions();
+
+        assertThatThrownBy(() -> sessionService.updateSessionStatus(id, Session.SessionStatus.ACTIVE))
+            .hasMessage("Session not found");
+        assertThat(sessionService.findById(id).orElseThrow().getStatus()).isEqualTo(Session.SessionStatus.COMPLETED);
+    }
+
+    private Object[] row(String code, String status, LocalDateTime createdAt, int currentCycle) {
+        LocalDateTime startedAt = createdAt.plusMinutes(1);
+        Timestamp completedAt = status.equals("PAUSED") ? null : Timestamp.valueOf(startedAt.plusMinutes(90));
+        return new Object[] { code, user.getId(), currentCycle, status, Timestamp.valueOf(createdAt),
+            Timestamp.valueOf(startedAt), completedAt };
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class, user.getId());
+    }
+
+    private static void assertSameSession(Session actual, Session expected) {
+        assertThat(actual.getId()).isEqualTo(expected.getId());
+        assertThat(actual.getSessionCode()).isEqualTo(expected.getSessionCode());
+        assertThat(actual.getCreator().getId()).isEqualTo(expected.getCreator().getId());
+        assertThat(actual.getDurationMinutes()).isEqualTo(expected.getDurationMinutes());
+        assertThat(actual.getBreakMinutes()).isEqualTo(expected.getBreakMinutes());
+        assertThat(actual.getLongBreakMinutes()).isEqualTo(expected.getLongBreakMinutes());
+        assertThat(actual.getTotalCycles()).isEqualTo(expected.getTotalCycles());
+        assertThat(actual.getCurrentCycle()).isEqualTo(expected.getCurrentCycle());
+        assertThat(actual.getStatus()).isEqualTo(expected.getStatus());
+        assertThat(actual.getCreatedAt()).isEqualTo(expected.getCreatedAt());
+        assertThat(actual.getStartedAt()).isEqualTo(expected.getStartedAt());
+        assertThat(actual.getCompletedAt()).isEqualTo(expected.getCompletedAt());
+        assertThat(actual.getCurrentTimeLeft()).isEqualTo(expected.getCurrentTimeLeft());
+        assertThat(actual.getIsRunning()).isEqualTo(expected.getIsRunning());
+        assertThat(actual.getIsBreak()).isEqualTo(expected.getIsBreak());
+    }
+}
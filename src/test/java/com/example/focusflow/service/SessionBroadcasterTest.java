@@ -0,0 +1,143 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionBroadcasterTest {
+
+    private final List<Map<String, Object>> sent = new ArrayList<>();
+
+    private SessionBroadcaster broadcaster;
+    private Session session;
+
+    @BeforeEach
+    void createBroadcaster() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> true) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void convertAndSend(String destination, Object payload) {
+                sent.add((Map<String, Object>) payload);
+            }
+        };
+        broadcaster = new SessionBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "messagingTemplate", template);
+        ReflectionTestUtils.setField(broadcaster, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(broadcaster, "clusterRelay", new ClusterRelay());
+        ReflectionTestUtils.setField(broadcaster, "coalesceWindowMs", 0L);
+        broadcaster.init();
+
+        session = new Session();
+        session.setId(1L);
+        session.setSessionCode("ABC123");
+        session.setTotalCycles(4);
+        session.setStatus(Session.SessionStatus.ACTIVE);
+        session.setCurrentTimeLeft(1500);
+        session.setIsRunning(true);
+        session.setIsBreak(false);
+    }
+
+    @AfterEach
+    void shutdown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void firstBroadcastIsFullAndLaterOnesCarryOnlyChanges() {
+        broadcaster.broadcast(session);
+        session.setCurrentTimeLeft(1200);
+        broadcaster.broadcast(session);
+
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(0)).containsEntry("full", true).containsKeys("sessionCode", "status", "currentTimeLeft");
+        assertThat(sent.get(1)).containsEntry("full", false).containsEntry("currentTimeLeft", 1200);
+        assertThat(sent.get(1).keySet()).containsExactlyInAnyOrder("currentTimeLeft", "seq", "full");
+    }
+
+    @Test
+    void sequenceHasNoGapsWhenNothingChanged() {
+        broadcaster.broadcast(session);
+        // Identical state sends nothing and must not consume a sequence number
+        broadcaster.broadcast(session);
+        broadcaster.broadcast(session);
+        session.setIsRunning(false);
+        broadcaster.broadcast(session);
+        session.setCurrentCycle(2);
+        broadcaster.broadcast(session);
+
+        assertThat(sent).extracting(message -> message.get("seq")).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void snapshotCarriesTheLastSentSequence() {
+        assertThat(broadcaster.snapshot(session)).containsEntry("seq", 0L).containsEntry("full", true);
+
+        broadcaster.broadcast(session);
+        session.setCurrentTimeLeft(900);
+        broadcaster.broadcast(session);
+
+        // A client resyncing from this snapshot must accept exactly the next delta
+        Map<String, Object> snapshot = broadcaster.snapshot(session);
+        assertThat(snapshot).containsEntry("seq", 2L).containsEntry("currentTimeLeft", 900);
+        session.setCurrentTimeLeft(600);
+        broadcaster.broadcast(session);
+        assertThat(sent.get(sent.size() - 1)).containsEntry("seq", 3L);
+    }
+
+    @Test
+    void finishedSessionStartsAFreshSequence() {
+        broadcaster.broadcast(session);
+        session.setStatus(Session.SessionStatus.COMPLETED);
+        broadcaster.broadcast(session);
+
+        // The topic is dropped once finished; anything after starts again with a full message
+        session.setStatus(Session.SessionStatus.ACTIVE);
+        broadcaster.broadcast(session);
+        assertThat(sent.get(sent.size() - 1)).containsEntry("seq", 1L).containsEntry("full", true);
+    }
+
+    @Test
+    void relayedStatusDoesNotResendAnUnchangedStatus() {
+        broadcaster.broadcast(session);
+
+        // A peer's fields arrive with the status as a plain string
+        Map<String, Object> relayed = new LinkedHashMap<>(SessionBroadcaster.fields(session));
+        relayed.put("status", "ACTIVE");
+        relayed.put("currentTimeLeft", 1100);
+        broadcaster.broadcastLocal(relayed);
+
+        assertThat(SessionBroadcaster.fields(session)).containsEntry("status", "ACTIVE");
+        assertThat(sent.get(1).keySet()).containsExactlyInAnyOrder("currentTimeLeft", "seq", "full");
+    }
+
+    @Test
+    void idleTopicsAreExpiredButPendingOnesAreKept() {
+        ReflectionTestUtils.setField(broadcaster, "topicIdleSeconds", 0L);
+        broadcaster.broadcast(session);
+        Session other = session.copy();
+        other.setId(2L);
+        other.setSessionCode("XYZ789");
+        ReflectionTestUtils.setField(broadcaster, "coalesceWindowMs", 60_000L);
+        broadcaster.broadcast(other);
+
+        // The first topic is idle; the second still has a coalesced state waiting to go out
+        broadcaster.expireIdleTopics();
+        assertThat(broadcaster.getTopicCount()).isEqualTo(1);
+
+        ReflectionTestUtils.setField(broadcaster, "coalesceWindowMs", 0L);
+        session.setCurrentTimeLeft(1000);
+        broadcaster.broadcast(session);
+        assertThat(sent.get(sent.size() - 1)).containsEntry("seq", 1L).containsEntry("full", true);
+    }
+}
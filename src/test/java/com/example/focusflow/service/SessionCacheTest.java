@@ -0,0 +1,130 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SessionCache cache;
+
+    @BeforeEach
+    void createCache() {
+        cache = new SessionCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 3);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        cache.registerMetrics();
+    }
+
+    @Test
+    void secondLookupIsAHitAndReturnsACopy() {
+        Session first = cache.getById(1L, this::load).orElseThrow();
+        first.setCurrentCycle(3);
+        Session second = cache.getById(1L, this::load).orElseThrow();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        // What a caller does to its copy is not seen by the next one
+        assertThat(second.getCurrentCycle()).isEqualTo(1);
+        assertThat(cache.getByCode("CODE1", code -> Optional.empty())).isPresent();
+        assertThat(cache.getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void unknownSessionsAreMissesAndNotCached() {
+        assertThat(cache.getById(1L, id -> Optional.empty())).isEmpty();
+        assertThat(cache.getById(1L, id -> Optional.empty())).isEmpty();
+
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void expiredEntriesAreReloadedAndCountedAsExpired() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", -1L);
+        cache.getById(1L, this::load);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 30L);
+
+        assertThat(cache.getById(1L, this::load)).isPresent();
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getExpirationCount()).isEqualTo(1);
+        assertThat(cache.getEvictionCount()).isZero();
+        assertThat(expirations()).isEqualTo(1);
+    }
+
+    @Test
+    void sweepDropsExpiredEntriesNobodyLooksUp() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", -1L);
+        cache.put(session(1L));
+        cache.put(session(2L));
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 30L);
+        cache.put(session(3L));
+
+        cache.sweepExpired();
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getExpirationCount()).isEqualTo(2);
+        assertThat(cache.getByCode("CODE1", code -> Optional.empty())).isEmpty();
+        assertThat(cache.getByCode("CODE3", code -> Optional.empty())).isPresent();
+    }
+
+    @Test
+    void trimmingDropsExpiredEntriesBeforeLiveOnes() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", -1L);
+        cache.put(session(1L));
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 30L);
+        for (long id = 2; id <= 5; id++) {
+            cache.put(session(id));
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.getExpirationCount()).isEqualTo(1);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("focusflow.session.cache.evictions").tag("cause", "size").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void anOlderVersionNeverReplacesANewerOne() {
+        Session newer = session(1L);
+        newer.setVersion(5L);
+        cache.put(newer);
+        Session older = session(1L);
+        older.setVersion(4L);
+        older.setCurrentCycle(2);
+        cache.put(older);
+
+        assertThat(cache.getById(1L, this::load).orElseThrow().getVersion()).isEqualTo(5L);
+    }
+
+    private double expirations() {
+        return meterRegistry.get("focusflow.session.cache.evictions").tag("cause", "expired").functionCounter().count();
+    }
+
+    private Optional<Session> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of(session(id));
+    }
+
+    private static Session session(Long id) {
+        Session session = new Session();
+        session.setId(id);
+        session.setSessionCode("CODE" + id);
+        session.setCreator(new User("cache-owner"));
+        session.setVersion(0L);
+        return session;
+    }
+}
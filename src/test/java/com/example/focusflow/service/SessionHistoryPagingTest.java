@@ -0,0 +1,121 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.SessionRepository;
+import com.example.focusflow.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionHistoryPagingTest {
+
+    private static final int SESSIONS = 1_000;
+    private static final int PAGE = 20;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private LocalDateTime newest;
+
+    @BeforeEach
+    void seedHistory() {
+        user = new User("history-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@focusflow.app");
+        user = userRepository.save(user);
+
+        // Three sessions share each timestamp, so the id tie-break is exercised on every page
+        newest = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Object[]> rows = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            Timestamp createdAt = Timestamp.valueOf(newest.minusMinutes(i / 3));
+            String status = i % 10 == 0 ? "ENDED_EARLY" : "COMPLETED";
+            rows.add(new Object[] { "H" + user.getId() + "-" + i, user.getId(), status, createdAt });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO sessions (session_code, creator_id, duration_minutes, break_minutes, long_break_minutes, " +
+            "total_cycles, current_cycle, status, is_running, is_break, version, created_at) " +
+            "VALUES (?, ?, 25, 5, 15, 4, 4, ?, FALSE, FALSE, 0, ?)", rows);
+    }
+
+    @Test
+    void walkingEveryPageVisitsEachSessionOnceInOrder() {
+        List<SessionRepository.SessionSummary> walked = walk(null, null, null);
+
+        assertThat(walked).hasSize(SESSIONS);
+        assertThat(walked).extracting(SessionRepository.SessionSummary::getId).doesNotHaveDuplicates();
+        for (int i = 1; i < walked.size(); i++) {
+            SessionRepository.SessionSummary previous = walked.get(i - 1);
+            SessionRepository.SessionSummary current = walked.get(i);
+            boolean ordered = current.getCreatedAt().isBefore(previous.getCreatedAt())
+                || (current.getCreatedAt().isEqual(previous.getCreatedAt()) && current.getId() < previous.getId());
+            assertThat(ordered).as("row %d follows row %d", i, i - 1).isTrue();
+        }
+    }
+
+    @Test
+    void filtersApplyAcrossPages() {
+        List<SessionRepository.SessionSummary> endedEarly = walk(Session.SessionStatus.ENDED_EARLY, null, null);
+        assertThat(endedEarly).hasSize(SESSIONS / 10)
+            .allMatch(summary -> summary.getStatus() == Session.SessionStatus.ENDED_EARLY);
+
+        // [from, to) covers 30 minutes of history: 90 sessions
+        LocalDateTime to = newest.minusMinutes(10);
+        LocalDateTime from = to.minusMinutes(30);
+        List<SessionRepository.SessionSummary> range = walk(null, from, to);
+        assertThat(range).hasSize(90)
+            .allMatch(summary -> !summary.getCreatedAt().isBefore(from) && summary.getCreatedAt().isBefore(to));
+    }
+
+    @Test
+    void deepPageMatchesTheSameRowsReachedByWalking() {
+        List<SessionRepository.SessionSummary> walked = walk(null, null, null);
+        SessionRepository.SessionSummary cursor = walked.get(SESSIONS - PAGE - 1);
+
+        // Seeking straight from a deep cursor returns the final page without reading the ones before it
+        List<SessionRepository.SessionSummary> last = sessionService.findHistoryPage(user, cursor.getCreatedAt(),
+            cursor.getId(), null, null, null, PAGE);
+        assertThat(last).extracting(SessionRepository.SessionSummary::getId)
+            .containsExactlyElementsOf(walked.subList(SESSIONS - PAGE, SESSIONS).stream()
+                .map(SessionRepository.SessionSummary::getId).toList());
+    }
+
+    private List<SessionRepository.SessionSummary> walk(Session.SessionStatus status, LocalDateTime from, LocalDateTime to) {
+        List<SessionRepository.SessionSummary> walked = new ArrayList<>();
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        while (true) {
+            List<SessionRepository.SessionSummary> page = sessionService.findHistoryPage(user, cursorCreatedAt, cursorId,
+                status, from, to, PAGE);
+            assertThat(page.size()).isLessThanOrEqualTo(PAGE);
+            walked.addAll(page);
+            if (page.size() < PAGE) {
+                return walked;
+            }
+            SessionRepository.SessionSummary last = page.get(page.size() - 1);
+            cursorCreatedAt = last.getCreatedAt();
+            cursorId = last.getId();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 40;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionStateStore sessionStateStore;
+
+    @Autowired
+    private SessionCache sessionCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Session session;
+
+    @BeforeEach
+    void createSession() {
+        User user = new User("concurrency-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@focusflow.app");
+        session = sessionService.createSession(userRepository.save(user), 25, 5, 15, 1_000_000);
+    }
+
+    @AfterEach
+    void restoreWriteBehind() {
+        ReflectionTestUtils.setField(sessionStateStore, "enabled", true);
+    }
+
+    @Test
+    void everyGuardedWriteBumpsTheVersionExactlyOnce() throws Exception {
+        // Without write-behind every cycle and timer update is a version-guarded write
+        ReflectionTestUtils.setField(sessionStateStore, "enabled", false);
+        long initialVersion = ((Number) row().get("version")).longValue();
+
+        AtomicInteger succeeded = new AtomicInteger();
+        runConcurrently((thread, i) -> {
+            int value = thread * UPDATES_PER_THREAD + i + 1;
+            try {
+                if (i % 2 == 0) {
+                    sessionService.updateCurrentCycle(session.getId(), value);
+                } else {
+                    sessionService.updateTimerState(session.getId(), value, false, false);
+                }
+                succeeded.incrementAndGet();
+            } catch (OptimisticLockingFailureException e) {
+                // Lost every attempt; allowed, but must leave no trace
+            }
+        });
+
+        Map<String, Object> row = row();
+        assertThat(((Number) row.get("version")).longValue()).isEqualTo(initialVersion + succeeded.get());
+        assertThat(succeeded.get()).isPositive();
+
+        // The cached copy must match what was committed, not what a losing attempt wrote into it
+        Session cached = sessionService.findById(session.getId()).orElseThrow();
+        assertThat(cached.getVersion()).isEqualTo(((Number) row.get("version")).longValue());
+        assertThat(cached.getCurrentCycle()).isEqualTo(((Number) row.get("current_cycle")).intValue());
+        assertThat(cached.getCurrentTimeLeft()).isEqualTo(((Number) row.get("current_time_left")).intValue());
+    }
+
+    @Test
+    void writeBehindTimerStateSurvivesConcurrentStatusWrites() throws Exception {
+        runConcurrently((thread, i) -> {
+            int value = thread * UPDATES_PER_THREAD + i + 1;
+            try {
+                if (i % 2 == 0) {
+                    sessionService.updateTimerState(session.getId(), value, false, false);
+                } else {
+                    sessionService.updateSessionStatus(session.getId(),
+                            thread % 2 == 0 ? Session.SessionStatus.ACTIVE : Session.SessionStatus.PAUSED);
+                }
+            } catch (OptimisticLockingFailureException e) {
+                // Status writes may lose; timer state must still end up in the database
+            }
+        });
+
+        Session inMemory = sessionService.findById(session.getId()).orElseThrow();
+        sessionStateStore.flush();
+        sessionCache.invalidate(session.getId());
+
+        Map<String, Object> row = row();
+        assertThat(((Number) row.get("current_time_left")).intValue()).isEqualTo(inMemory.getCurrentTimeLeft());
+        assertThat(((Number) row.get("current_cycle")).intValue()).isEqualTo(inMemory.getCurrentCycle());
+        assertThat(row.get("status")).isEqualTo(inMemory.getStatus().name());
+    }
+
+    @Test
+    void statusWriteCarriesPendingTimerState() {
+        sessionService.updateTimerState(session.getId(), 600, true, false);
+        sessionService.updateTimerState(session.getId(), 321, false, false);
+        sessionService.updateSessionStatus(session.getId(), Session.SessionStatus.PAUSED);
+
+        // No flush: the guarded status write itself must have written the pending columns
+        Map<String, Object> row = row();
+        assertThat(((Number) row.get("current_time_left")).intValue()).isEqualTo(321);
+        assertThat(row.get("is_running")).isEqualTo(false);
+        assertThat(row.get("timer_started_at")).isNotNull();
+        assertThat(row.get("status")).isEqualTo("PAUSED");
+    }
+
+    @Test
+    void compareAndSetIncrementsLoseNoUpdates() throws Exception {
+        // Every thread reads the cycle, asks for one more and retries until its own increment lands
+        runConcurrently((thread, i) -> {
+            while (true) {
+                int seen = sessionService.findById(session.getId()).orElseThrow().getCurrentCycle();
+                try {
+                    if (sessionService.compareAndSetCycle(session.getId(), seen, seen + 1).isPresent()) {
+                        return;
+                    }
+                } catch (OptimisticLockingFailureException e) {
+                    // Lost every attempt to another thread; read again
+                }
+            }
+        });
+
+        int expected = 1 + THREADS * UPDATES_PER_THREAD;
+        assertThat(sessionService.findById(session.getId()).orElseThrow().getCurrentCycle()).isEqualTo(expected);
+        sessionStateStore.flush();
+        assertThat(((Number) row().get("current_cycle")).intValue()).isEqualTo(expected);
+    }
+
+    @Test
+    void cycleAdvanceAgainstAStaleCycleIsSkipped() {
+        // The engine moved the session on to cycle 2; a client that saw cycle 1 end must not push it to 3
+        sessionService.updateCurrentCycle(session.getId(), 2);
+        Session result = sessionService.updateCurrentCycle(session.getId(), 3, 1);
+
+        assertThat(result.getCurrentCycle()).isEqualTo(2);
+        assertThat(sessionService.updateCurrentCycle(session.getId(), 3, 2).getCurrentCycle()).isEqualTo(3);
+    }
+
+    private Map<String, Object> row() {
+        return jdbcTemplate.queryForMap(
+                "SELECT version, status, current_cycle, current_time_left, is_running, timer_started_at FROM sessions WHERE id = ?",
+                session.getId());
+    }
+
+    private void runConcurrently(Update update) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        update.apply(thread, i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Update {
+        void apply(int thread, int index);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionStateStoreTest {
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionStateStore sessionStateStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Session session;
+
+    @BeforeEach
+    void createSession() {
+        sessionStateStore.flush();
+        User user = new User("write-behind-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@focusflow.app");
+        session = sessionService.createSession(userRepository.save(user), 25, 5, 15, 4);
+    }
+
+    @AfterEach
+    void restoreIdleTimeout() {
+        ReflectionTestUtils.setField(sessionStateStore, "idleSeconds", 300L);
+    }
+
+    @Test
+    void burstOfTimerUpdatesCostsOneRowWrite() {
+        long receivedBefore = sessionStateStore.getUpdatesReceived();
+        long writtenBefore = sessionStateStore.getRowsWritten();
+        long versionBefore = version();
+
+        for (int timeLeft = 1500; timeLeft > 1400; timeLeft--) {
+            sessionService.updateTimerState(session.getId(), timeLeft, false, false);
+        }
+        assertThat(sessionStateStore.getUpdatesReceived() - receivedBefore).isEqualTo(100);
+        assertThat(sessionStateStore.getRowsWritten() - writtenBefore).isZero();
+        assertThat(row().get("current_time_left")).isNull();
+
+        sessionStateStore.flush();
+        assertThat(sessionStateStore.getRowsWritten() - writtenBefore).isEqualTo(1);
+        assertThat(((Number) row().get("current_time_left")).intValue()).isEqualTo(1401);
+        assertThat(version()).isEqualTo(versionBefore + 1);
+
+        // The flushed version reaches readers, so the next guarded write succeeds first time
+        assertThat(sessionService.findById(session.getId()).orElseThrow().getVersion()).isEqualTo(versionBefore + 1);
+        sessionService.updateSessionStatus(session.getId(), Session.SessionStatus.PAUSED);
+        assertThat(version()).isEqualTo(versionBefore + 2);
+    }
+
+    @Test
+    void flushNeverOverwritesANewerRow() {
+        sessionService.updateTimerState(session.getId(), 900, false, false);
+        sessionService.updateCurrentCycle(session.getId(), 2);
+
+        // Another writer finished the session after the state was recorded
+        jdbcTemplate.update("UPDATE sessions SET status = 'COMPLETED', current_cycle = 4, current_time_left = 0, " +
+                "version = version + 1 WHERE id = ?", session.getId());
+        sessionStateStore.flush();
+
+        Map<String, Object> row = row();
+        assertThat(row.get("status")).isEqualTo("COMPLETED");
+        assertThat(((Number) row.get("current_cycle")).intValue()).isEqualTo(4);
+        assertThat(((Number) row.get("current_time_left")).intValue()).isZero();
+
+        // The stale state and cached copy are dropped, so readers see the row as it is now
+        Session reloaded = sessionService.findById(session.getId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(Session.SessionStatus.COMPLETED);
+        assertThat(reloaded.getCurrentCycle()).isEqualTo(4);
+        assertThat(reloaded.getCurrentTimeLeft()).isZero();
+        assertThat(reloaded.getVersion()).isEqualTo(version());
+    }
+
+    @Test
+    void idleCleanStatesAreEvicted() {
+        sessionService.updateTimerState(session.getId(), 700, false, false);
+        assertThat(sessionStateStore.getTrackedCount()).isPositive();
+
+        // Dirty states are kept however old they are
+        ReflectionTestUtils.setField(sessionStateStore, "idleSeconds", 0L);
+        sessionStateStore.evictIdle();
+        assertThat(sessionService.findById(session.getId()).orElseThrow().getCurrentTimeLeft()).isEqualTo(700);
+
+        sessionStateStore.flush();
+        sessionStateStore.evictIdle();
+        assertThat(sessionStateStore.getTrackedCount()).isZero();
+        assertThat(sessionService.findById(session.getId()).orElseThrow().getCurrentTimeLeft()).isEqualTo(700);
+    }
+
+    private long version() {
+        return ((Number) row().get("version")).longValue();
+    }
+
+    private Map<String, Object> row() {
+        return jdbcTemplate.queryForMap(
+                "SELECT version, status, current_cycle, current_time_left FROM sessions WHERE id = ?", session.getId());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionTimerRestartTest {
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionTimerEngine timerEngine;
+
+    @Autowired
+    private SessionStateStore sessionStateStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void runningSessionsAreReArmedAfterARestart() throws Exception {
+        Session running = startFocus();
+        Session overdue = startFocus();
+        Session paused = startFocus();
+        sessionService.updateTimerState(paused.getId(), 900, false, false);
+        sessionStateStore.flush();
+        // Ten minutes left when its timer started eleven minutes ago: the phase ran out while the node was down
+        jdbcTemplate.update("UPDATE sessions SET timer_started_at = ? WHERE id = ?",
+            Timestamp.valueOf(LocalDateTime.now().minusMinutes(11)), overdue.getId());
+
+        // A restart loses every timer held in memory
+        timerEngine.shutdown();
+        timerEngine.init();
+        assertThat(timerEngine.isTracking(running.getId(), false)).isFalse();
+
+        sessionService.resumeRunningTimers();
+
+        assertThat(timerEngine.isTracking(running.getId(), false)).isTrue();
+        assertThat(timerEngine.remainingSeconds(running.getId())).isBetween(590, 600);
+        assertThat(timerEngine.isTracking(paused.getId(), false)).isFalse();
+
+        Session advanced = awaitBreak(overdue.getId());
+        assertThat(advanced.getCurrentCycle()).isEqualTo(1);
+        assertThat(advanced.getCurrentTimeLeft()).isEqualTo(5 * 60);
+        assertThat(advanced.getIsRunning()).isFalse();
+        assertThat(timerEngine.isTracking(overdue.getId(), false)).isFalse();
+    }
+
+    private Session startFocus() {
+        User user = new User("restart-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@focusflow.app");
+        Session session = sessionService.createSession(userRepository.save(user), 25, 5, 15, 4);
+        sessionService.updateSessionStatus(session.getId(), Session.SessionStatus.ACTIVE);
+        return sessionService.updateTimerState(session.getId(), 600, true, false);
+    }
+
+    private Session awaitBreak(Long sessionId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            Session session = sessionService.findById(sessionId).orElseThrow();
+            if (Boolean.TRUE.equals(session.getIsBreak()) || System.currentTimeMillis() > deadline) {
+                assertThat(session.getIsBreak()).as("phase of session %d advanced", sessionId).isTrue();
+                return session;
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.focusflow.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final Runnable NOOP = () -> { };
+
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void createWheel() {
+        wheel = new TimingWheel(100, 512, Runnable::run);
+    }
+
+    @AfterEach
+    void closeWheel() {
+        wheel.close();
+    }
+
+    @Test
+    void cancelledTimeoutsAreUnlinkedImmediately() {
+        // Hour-long phases cancelled well before their deadline, as every pause and restart does
+        for (int i = 0; i < 1_000_000; i++) {
+            wheel.schedule(NOOP, ThreadLocalRandom.current().nextLong(1_000, 3_600_000)).cancel();
+        }
+
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.linkedCount()).isZero();
+    }
+
+    @Test
+    void churnKeepsOnlyLiveTimeoutsLinked() {
+        List<TimingWheel.Timeout> live = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            live.add(wheel.schedule(NOOP, 3_600_000));
+        }
+        for (int i = 0; i < 200_000; i++) {
+            int slot = ThreadLocalRandom.current().nextInt(live.size());
+            live.get(slot).cancel();
+            live.set(slot, wheel.schedule(NOOP, ThreadLocalRandom.current().nextLong(1_000, 3_600_000)));
+        }
+
+        assertThat(wheel.size()).isEqualTo(10_000);
+        assertThat(wheel.linkedCount()).isEqualTo(10_000);
+    }
+
+    @Test
+    void uncancelledTimeoutFires() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        TimingWheel.Timeout cancelled = wheel.schedule(() -> { throw new AssertionError("cancelled timeout fired"); }, 150);
+        wheel.schedule(fired::countDown, 200);
+        cancelled.cancel();
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.focusflow.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TipRotationTest {
+
+    private static final int USERS = 1_000_000;
+    private static final int TIPS = 50;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void aMillionUsersFitInSixteenBytesPerSlotWithNothingAllocatedPerLookup() {
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        TipRotation rotation = new TipRotation(USERS);
+        long tableBytes = THREADS.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(rotation.capacity()).isBetween(USERS, 2 * USERS);
+        // Two long arrays plus a few small objects
+        assertThat(tableBytes).isLessThanOrEqualTo(16L * rotation.capacity() + 64 * 1024);
+
+        // Warm up, then every user of the million takes a tip twice
+        for (long user = 0; user < 10_000; user++) {
+            rotation.next(user, TIPS, 1);
+        }
+        before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int round = 0; round < 2; round++) {
+            for (long user = 0; user < USERS; user++) {
+                rotation.next(user, TIPS, 1);
+            }
+        }
+        long lookupBytes = THREADS.getCurrentThreadAllocatedBytes() - before;
+        assertThat(lookupBytes).isLessThan(1024 * 1024);
+    }
+
+    @Test
+    void everyTipComesUpOnceBeforeAnyRepeats() {
+        TipRotation rotation = new TipRotation(USERS);
+        int users = 1_000;
+        BitSet[] seen = new BitSet[users];
+        for (int i = 0; i < users; i++) {
+            seen[i] = new BitSet(TIPS);
+        }
+
+        // Users interleave, as concurrent requests would
+        for (int draw = 0; draw < TIPS; draw++) {
+            for (int user = 0; user < users; user++) {
+                int tip = rotation.next(user, TIPS, 1);
+                assertThat(tip).isBetween(0, TIPS - 1);
+                assertThat(seen[user].get(tip)).as("user %d repeated tip %d", user, tip).isFalse();
+                seen[user].set(tip);
+            }
+        }
+        for (BitSet bag : seen) {
+            assertThat(bag.cardinality()).isEqualTo(TIPS);
+        }
+    }
+
+    @Test
+    void aNewGenerationStartsAFreshBag() {
+        TipRotation rotation = new TipRotation(16);
+        BitSet seen = new BitSet(TIPS);
+        for (int draw = 0; draw < TIPS / 2; draw++) {
+            rotation.next(7, TIPS, 1);
+        }
+
+        // After a corpus reload the whole new corpus comes up before any repeat
+        int reloaded = TIPS + 10;
+        for (int draw = 0; draw < reloaded; draw++) {
+            int tip = rotation.next(7, reloaded, 2);
+            assertThat(seen.get(tip)).isFalse();
+            seen.set(tip);
+        }
+        assertThat(seen.cardinality()).isEqualTo(reloaded);
+    }
+
+    @Test
+    void usersBeyondCapacityEvictWithoutGrowingTheTable() {
+        TipRotation rotation = new TipRotation(1_024);
+        int capacity = rotation.capacity();
+        for (long user = 0; user < 100_000; user++) {
+            assertThat(rotation.next(user, TIPS, 1)).isBetween(0, TIPS - 1);
+        }
+        assertThat(rotation.capacity()).isEqualTo(capacity);
+    }
+}
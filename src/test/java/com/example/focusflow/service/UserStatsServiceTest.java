@@ -0,0 +1,155 @@
+package com.example.focusflow.service;
+
+import com.example.focusflow.entity.Session;
+import com.example.focusflow.entity.User;
+import com.example.focusflow.entity.UserStats;
+import com.example.focusflow.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserStatsServiceTest {
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionStateStore sessionStateStore;
+
+    @Autowired
+    private SessionCache sessionCache;
+
+    @Autowired
+    private FocusRollupService focusRollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = new User("stats-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@focusflow.app");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void incrementalStatsAgreeWithARebuild() {
+        // Completed through its cycles
+        Session completed = sessionService.createSession(user, 25, 5, 15, 4);
+        sessionService.updateSessionStatus(completed.getId(), Session.SessionStatus.ACTIVE);
+        for (int cycle = 2; cycle <= 4; cycle++) {
+            sessionService.updateCurrentCycle(completed.getId(), cycle);
+        }
+
+        // On the break after its second cycle
+        Session onBreak = sessionService.createSession(user, 50, 10, 20, 4);
+        sessionService.updateCurrentCycle(onBreak.getId(), 2);
+        sessionService.updateTimerState(onBreak.getId(), 600, false, true);
+
+        // Ended early after one cycle
+        Session ended = sessionService.createSession(user, 30, 5, 15, 4);
+        sessionService.updateCurrentCycle(ended.getId(), 2);
+        sessionService.updateSessionStatus(ended.getId(), Session.SessionStatus.ENDED_EARLY);
+
+        sessionStateStore.flush();
+        UserStats incremental = userStatsService.getStats(user.getId());
+        assertThat(incremental.getCompletedCycles()).isEqualTo(4 + 2 + 1);
+        assertThat(incremental.getTotalFocusMinutes()).isEqualTo(4 * 25 + 2 * 50 + 30);
+        assertThat(incremental.getCompletedSessions()).isEqualTo(1);
+        assertAgree(incremental, userStatsService.rebuild(user.getId()));
+    }
+
+    @Test
+    void creditsMadeDuringARebuildAreNeitherLostNorDoubled() throws Exception {
+        int sessions = 4;
+        int cycles = 150;
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            Session session = sessionService.createSession(user, 25, 5, 15, 1_000);
+            writers.add(CompletableFuture.runAsync(() -> {
+                for (int cycle = 2; cycle <= cycles; cycle++) {
+                    sessionService.updateCurrentCycle(session.getId(), cycle);
+                }
+            }));
+        }
+
+        CompletableFuture<Void> allWriters = CompletableFuture.allOf(writers.toArray(new CompletableFuture[0]));
+        int rebuilds = 0;
+        while (!allWriters.isDone() || rebuilds == 0) {
+            userStatsService.rebuildAll();
+            rebuilds++;
+        }
+        allWriters.get(60, TimeUnit.SECONDS);
+
+        sessionStateStore.flush();
+        UserStats live = userStatsService.getStats(user.getId());
+        assertThat(live.getCompletedCycles()).isEqualTo((long) sessions * (cycles - 1));
+        assertAgree(live, userStatsService.rebuild(user.getId()));
+    }
+
+    @Test
+    void cyclesSetBackAndAdvancedAgainCountOnce() {
+        Session session = sessionService.createSession(user, 25, 5, 15, 10);
+        sessionService.updateCurrentCycle(session.getId(), 4);
+        sessionService.updateCurrentCycle(session.getId(), 2);
+        // Back where it was: nothing new
+        sessionService.updateCurrentCycle(session.getId(), 4);
+        sessionService.updateCurrentCycle(session.getId(), 5);
+
+        sessionStateStore.flush();
+        UserStats incremental = userStatsService.getStats(user.getId());
+        assertThat(incremental.getCompletedCycles()).isEqualTo(4);
+        assertThat(incremental.getTotalFocusMinutes()).isEqualTo(4 * 25);
+        assertAgree(incremental, userStatsService.rebuild(user.getId()));
+    }
+
+    @Test
+    void focusIsDatedByItsSessionInStreaksAndRollupsAlike() {
+        Session session = sessionService.createSession(user, 25, 5, 15, 4);
+        LocalDate created = LocalDate.now().minusDays(3);
+        jdbcTemplate.update("UPDATE sessions SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(created.atTime(9, 0)), session.getId());
+        sessionCache.invalidate(session.getId());
+
+        sessionService.updateCurrentCycle(session.getId(), 3);
+
+        assertThat(userStatsService.getStats(user.getId()).getLastFocusDate()).isEqualTo(created);
+        assertThat(focusRollupService.getRange(user.getId(), created.minusDays(1), LocalDate.now(), FocusRollupService.Granularity.DAY))
+            .extracting(FocusRollupService.FocusBucket::start)
+            .containsExactly(created);
+        sessionStateStore.flush();
+        assertAgree(userStatsService.getStats(user.getId()), userStatsService.rebuild(user.getId()));
+    }
+
+    private static void assertAgree(UserStats actual, UserStats rebuilt) {
+        assertThat(actual.getCompletedCycles()).isEqualTo(rebuilt.getCompletedCycles());
+        assertThat(actual.getTotalFocusMinutes()).isEqualTo(rebuilt.getTotalFocusMinutes());
+        assertThat(actual.getCompletedSessions()).isEqualTo(rebuilt.getCompletedSessions());
+        assertThat(actual.getCurrentStreakDays()).isEqualTo(rebuilt.getCurrentStreakDays());
+        assertThat(actual.getLongestStreakDays()).isEqualTo(rebuilt.getLongestStreakDays());
+        assertThat(actual.getLastFocusDate()).isEqualTo(rebuilt.getLastFocusDate());
+    }
+}